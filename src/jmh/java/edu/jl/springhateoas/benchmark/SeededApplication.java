@@ -0,0 +1,81 @@
+package edu.jl.springhateoas.benchmark;
+
+import edu.jl.springhateoas.SpringHateoasApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application on a random port against its own in-memory H2 database, with {@code rows} generated
+ * users on top of the ones from {@code data.sql}. Generated names cycle through {@link #FIRST_NAMES}, so a
+ * search for one of them matches about one generated user in sixteen.
+ */
+public final class SeededApplication {
+    public static final List<String> FIRST_NAMES = List.of(
+            "Alice", "Bob", "Carol", "Dave", "Erin", "Frank", "Grace", "Heidi",
+            "Ivan", "Judy", "Mallory", "Niaj", "Olivia", "Peggy", "Rupert", "Sybil");
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final String REACTIVE_APPLICATION = "edu.jl.springhateoas.reactive.ReactiveUserApplication";
+
+    private SeededApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String databaseName, int rows, List<String> extraProperties) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_ON_EXIT=FALSE"));
+        properties.addAll(extraProperties);
+        // As command line arguments, so they take precedence over application(-<profile>).properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringHateoasApplication.class)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+        seed(context.getBean(JdbcTemplate.class), rows);
+        return context;
+    }
+
+    /**
+     * Boots {@code ReactiveUserApplication}, built with the {@code reactive} profile, like {@link #start}: its
+     * R2DBC database is kept open, so the users are seeded over JDBC into the same in-memory H2 database.
+     */
+    public static ConfigurableApplicationContext startReactive(String databaseName, int rows, List<String> extraProperties) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "spring.r2dbc.url=r2dbc:h2:mem:///" + databaseName + ";DB_CLOSE_DELAY=-1"));
+        properties.addAll(extraProperties);
+        SpringApplicationBuilder application;
+        try {
+            application = (SpringApplicationBuilder) Class.forName(REACTIVE_APPLICATION).getMethod("application").invoke(null);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException(REACTIVE_APPLICATION + " is only built with the reactive profile", exception);
+        }
+        ConfigurableApplicationContext context = application
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+        seed(new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + databaseName, "sa", "")), rows);
+        return context;
+    }
+
+    public static List<UUID> userIds(ConfigurableApplicationContext context) {
+        return context.getBean(JdbcTemplate.class).queryForList("select user_id from users", UUID.class);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{UUID.randomUUID(), FIRST_NAMES.get(i % FIRST_NAMES.size()) + " " + i, 15 + i % 60});
+            if (batch.size() == INSERT_BATCH_SIZE || i == rows - 1) {
+                jdbcTemplate.batchUpdate("insert into users (user_id, name, age) values (?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
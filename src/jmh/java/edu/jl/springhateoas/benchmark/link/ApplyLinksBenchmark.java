@@ -0,0 +1,92 @@
+package edu.jl.springhateoas.benchmark.link;
+
+import edu.jl.springhateoas.controller.UserController;
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.link.UserLinkTemplates;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Compares building the links of a page of users through {@code linkTo(methodOn(...))}, as
+ * {@code UserServiceImplementation.applyLinks} used to, against {@link UserLinkTemplates}, and the cost of the
+ * page links on top of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApplyLinksBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int users;
+
+    private UserLinkTemplates userLinkTemplates;
+    private List<UUID> ids;
+    private Page<UserResponseDto> page;
+
+    @Setup
+    public void setUp() {
+        userLinkTemplates = new UserLinkTemplates();
+        ids = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/paged");
+        request.setServerPort(8080);
+        request.setQueryString("name=a&size=" + users + "&page=3&sort=name,asc&hateoas=true");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        page = new PageImpl<>(linkTemplates(), PageRequest.of(3, users), users * 10L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<UserResponseDto> linkToMethodOn() {
+        List<UserResponseDto> userResponses = new ArrayList<>(users);
+        for (UUID id : ids) {
+            UserResponseDto userResponseDto = new UserResponseDto(id, "Alice", 25);
+            userResponseDto.add(linkTo(methodOn(UserController.class).findById(userResponseDto.getId(), true, null, null, null, null, null)).withSelfRel());
+            userResponseDto.add(linkTo(methodOn(UserController.class).save(new UserRequestDto("John Doe", 25), true)).withRel("create"));
+            userResponseDto.add(linkTo(methodOn(UserController.class).delete(userResponseDto.getId())).withRel("delete"));
+            userResponseDto.add(linkTo(methodOn(UserController.class).update(userResponseDto.getId(), new UserRequestDto("John Doe", 25), true, null, null)).withRel("update"));
+            userResponses.add(userResponseDto);
+        }
+        return userResponses;
+    }
+
+    @Benchmark
+    public List<UserResponseDto> linkTemplates() {
+        List<UserResponseDto> userResponses = new ArrayList<>(users);
+        Function<UserResponseDto, UserResponseDto> applyLinks = userLinkTemplates.forCurrentRequest();
+        for (UUID id : ids) {
+            userResponses.add(applyLinks.apply(new UserResponseDto(id, "Alice", 25)));
+        }
+        return userResponses;
+    }
+
+    @Benchmark
+    public PagedModel<UserResponseDto> applyPageLinks() {
+        return userLinkTemplates.applyPageLinks(page);
+    }
+}
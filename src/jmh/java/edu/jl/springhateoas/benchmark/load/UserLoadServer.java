@@ -0,0 +1,110 @@
+package edu.jl.springhateoas.benchmark.load;
+
+import edu.jl.springhateoas.benchmark.SeededApplication;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server side of {@link UserLoadTest}, run in a JVM of its own so that the load clients compete with neither its
+ * CPU, threads nor heap, and the thread, heap and pinning figures are those of the server alone.
+ * <p>
+ * {@code UserLoadServer <profile> <mode> <rows> [key=value...]} boots the application, prints
+ * {@code load-server port <port>}, then follows the lines of its standard input: {@code reset} starts a run,
+ * {@code report} prints {@code load-server report <peak threads> <peak heap bytes> <pinned virtual threads>} since
+ * the last reset. The end of its input stops it.
+ */
+public final class UserLoadServer {
+    static final String REPLY_PREFIX = "load-server ";
+    static final String REACTIVE_MODE = "reactive";
+
+    private static final Map<String, String> MODES = Map.of(
+            "platform", "spring.threads.virtual.enabled=false",
+            "virtual", "spring.threads.virtual.enabled=true");
+    private static final String PINNED_COUNTER = "jvm.threads.virtual.pinned";
+    private static final Duration HEAP_SAMPLE_INTERVAL = Duration.ofMillis(100);
+
+    private UserLoadServer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String profile = args[0], mode = args[1];
+        int rows = Integer.parseInt(args[2]);
+        List<String> extraProperties = Arrays.asList(args).subList(3, args.length);
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        AtomicLong peakHeapBytes = new AtomicLong();
+        Thread.ofPlatform().daemon().name("load-server-heap").start(() -> {
+            while (true) {
+                peakHeapBytes.accumulateAndGet(memoryMXBean.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(HEAP_SAMPLE_INTERVAL.toMillis());
+                } catch (InterruptedException exception) {
+                    return;
+                }
+            }
+        });
+
+        try (ConfigurableApplicationContext context = start(profile, mode, rows, extraProperties)) {
+            // Only registered with virtual threads, see VirtualThreadPinningMonitor
+            Counter pinned = context.getBeanProvider(MeterRegistry.class).stream()
+                    .map(registry -> registry.find(PINNED_COUNTER).counter())
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+            double pinnedBefore = 0;
+            reply("port " + context.getEnvironment().getRequiredProperty("local.server.port", Integer.class));
+            BufferedReader commands = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            for (String command = commands.readLine(); command != null; command = commands.readLine()) {
+                switch (command) {
+                    case "reset" -> {
+                        threadMXBean.resetPeakThreadCount();
+                        peakHeapBytes.set(memoryMXBean.getHeapMemoryUsage().getUsed());
+                        pinnedBefore = pinned != null ? pinned.count() : 0;
+                    }
+                    case "report" -> reply("report " + threadMXBean.getPeakThreadCount() + " " + peakHeapBytes.get()
+                            + " " + (long) ((pinned != null ? pinned.count() : 0) - pinnedBefore));
+                    default -> throw new IllegalArgumentException("Unknown load server command " + command);
+                }
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext start(String profile, String mode, int rows, List<String> extraProperties)
+            throws IOException {
+        if (mode.equals(REACTIVE_MODE)) {
+            return SeededApplication.startReactive("load-" + mode, rows, extraProperties);
+        }
+        List<String> properties = new ArrayList<>(List.of(MODES.get(mode), "spring.profiles.active=" + profile));
+        if (profile.equals("production")) {
+            Path directory = Files.createTempDirectory("load-" + mode);
+            properties.add("app.h2.location=file:" + directory.resolve("users"));
+            properties.add("spring.sql.init.data-locations=classpath:data.sql");
+        }
+        properties.addAll(extraProperties);
+        return SeededApplication.start("load-" + mode, rows, properties);
+    }
+
+    private static void reply(String reply) {
+        System.out.println(REPLY_PREFIX + reply);
+        System.out.flush();
+    }
+}
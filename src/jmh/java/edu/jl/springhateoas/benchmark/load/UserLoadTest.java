@@ -0,0 +1,255 @@
+package edu.jl.springhateoas.benchmark.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of the user endpoints: boots the application once per profile and execution mode and
+ * keeps {@code concurrency} clients sending requests back to back, then reports throughput, latency
+ * percentiles, and the peak thread count, heap use and pinned virtual threads of the server per profile, mode
+ * and endpoint.
+ * <p>
+ * The application runs in a forked JVM ({@link UserLoadServer}): sharing one with the clients, the modes would be
+ * compared under the CPU, threads and heap of the clients too, and their virtual threads would count as pinned
+ * server threads.
+ * <p>
+ * {@code ./mvnw -Pbenchmark test-compile exec:exec@load-test -Dload-test.args="--concurrency=1000 --duration=30"}
+ * <p>
+ * Options (all optional): {@code --profiles=default,production} (the production profile runs against a
+ * file-backed database in a temporary directory, with the sample users of {@code data.sql}),
+ * {@code --modes=platform,virtual,reactive} (the reactive mode boots {@code ReactiveUserApplication} instead,
+ * under the default profile only, and needs {@code -Pbenchmark,reactive}), {@code --endpoints=/api/v1/users/{id},...},
+ * {@code --concurrency=<clients>}, {@code --warmup=<seconds>}, {@code --duration=<seconds>},
+ * {@code --rows=<generated users>} on top of {@code data.sql},
+ * {@code --properties=key=value;key=value} for extra application properties,
+ * {@code --server-jvm-args=<options separated by spaces>} for the JVM of the server, e.g. {@code -Xmx2g}.
+ */
+public final class UserLoadTest {
+    private static final List<String> SEEDED_IDS = List.of(
+            "1e1f3e26-9b01-4d7d-a123-123456789001", "1e1f3e26-9b01-4d7d-a123-123456789005",
+            "1e1f3e26-9b01-4d7d-a123-123456789010", "1e1f3e26-9b01-4d7d-a123-123456789015",
+            "1e1f3e26-9b01-4d7d-a123-123456789020");
+    private static final Duration SERVER_START_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration SERVER_REPLY_TIMEOUT = Duration.ofSeconds(30);
+
+    private UserLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        List<String> profiles = Arrays.asList(options.getOrDefault("profiles", "default").split(","));
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "platform,virtual").split(","));
+        List<String> endpoints = Arrays.asList(options.getOrDefault("endpoints",
+                "/api/v1/users/{id},/api/v1/users/paged?hateoas=true,/api/v1/users?hateoas=true").split(","));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "512"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "20")));
+        int rows = Integer.parseInt(options.getOrDefault("rows", "0"));
+        List<String> extraProperties = options.containsKey("properties")
+                ? Arrays.asList(options.get("properties").split(";"))
+                : List.of();
+        List<String> serverJvmArgs = options.containsKey("server-jvm-args")
+                ? Arrays.asList(options.get("server-jvm-args").trim().split("\\s+"))
+                : List.of();
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-11s %-10s %-40s %12s %10s %10s %10s %8s %8s %8s %8s",
+                "profile", "mode", "endpoint", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "threads", "heap MB", "pinned"));
+        for (String profile : profiles) {
+            for (String mode : modes) {
+                if (mode.equals(UserLoadServer.REACTIVE_MODE) && !profile.equals("default")) {
+                    continue;
+                }
+                try (Server server = Server.start(serverJvmArgs, profile, mode, rows, extraProperties)) {
+                    for (String endpoint : endpoints) {
+                        run(server.port(), endpoint, concurrency, warmup);
+                        server.reset();
+                        Result result = run(server.port(), endpoint, concurrency, duration);
+                        ServerUsage usage = server.report();
+                        report.add(String.format("%-11s %-10s %-40s %12.1f %10.2f %10.2f %10.2f %8d %8d %8d %8d",
+                                profile, mode, endpoint, result.throughput(), result.percentile(0.50),
+                                result.percentile(0.99), result.percentile(1.0), result.errors(),
+                                usage.peakThreads(), usage.peakHeapBytes() >> 20, usage.pinned()));
+                    }
+                }
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static Result run(int port, String endpoint, int concurrency, Duration duration) throws Exception {
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> clients = new ArrayList<>(concurrency);
+        try (HttpClient httpClient = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        String path = endpoint.replace("{id}", SEEDED_IDS.get(ThreadLocalRandom.current().nextInt(SEEDED_IDS.size())));
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception exception) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+            List<long[]> allLatencies = new ArrayList<>(concurrency);
+            for (Future<long[]> client : clients) {
+                allLatencies.add(client.get());
+            }
+            long[] latencies = allLatencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(latencies, duration, errors.get());
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * A {@link UserLoadServer} in a JVM forked with the class path of this one. Its log lines are passed through,
+     * its replies are read in order.
+     */
+    private static final class Server implements AutoCloseable {
+        private final Process process;
+        private final Writer commands;
+        private final BlockingQueue<String> replies = new LinkedBlockingQueue<>();
+        private int port;
+
+        private Server(Process process) {
+            this.process = process;
+            this.commands = process.outputWriter(StandardCharsets.UTF_8);
+            Thread.ofPlatform().daemon().name("load-server-output").start(() -> {
+                try (BufferedReader output = process.inputReader(StandardCharsets.UTF_8)) {
+                    for (String line = output.readLine(); line != null; line = output.readLine()) {
+                        if (line.startsWith(UserLoadServer.REPLY_PREFIX)) {
+                            replies.add(line.substring(UserLoadServer.REPLY_PREFIX.length()));
+                        } else {
+                            System.out.println(line);
+                        }
+                    }
+                } catch (IOException exception) {
+                    // The server exited, which the next reply reports
+                }
+            });
+        }
+
+        static Server start(List<String> jvmArgs, String profile, String mode, int rows, List<String> extraProperties)
+                throws IOException, InterruptedException {
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmArgs);
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"), UserLoadServer.class.getName(),
+                    profile, mode, String.valueOf(rows)));
+            command.addAll(extraProperties);
+            Server server = new Server(new ProcessBuilder(command).redirectErrorStream(true).start());
+            try {
+                server.port = Integer.parseInt(server.reply("port", SERVER_START_TIMEOUT));
+            } catch (RuntimeException | InterruptedException exception) {
+                server.close();
+                throw exception;
+            }
+            return server;
+        }
+
+        int port() {
+            return port;
+        }
+
+        void reset() throws IOException {
+            send("reset");
+        }
+
+        ServerUsage report() throws IOException, InterruptedException {
+            send("report");
+            String[] usage = reply("report", SERVER_REPLY_TIMEOUT).split(" ");
+            return new ServerUsage(Integer.parseInt(usage[0]), Long.parseLong(usage[1]), Long.parseLong(usage[2]));
+        }
+
+        private void send(String command) throws IOException {
+            commands.write(command + "\n");
+            commands.flush();
+        }
+
+        private String reply(String kind, Duration timeout) throws InterruptedException {
+            String reply = replies.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (reply == null || !reply.startsWith(kind + " ")) {
+                throw new IllegalStateException("The load server did not reply " + kind + (process.isAlive()
+                        ? " in " + timeout + ", got " + reply
+                        : ", it exited with " + process.exitValue()));
+            }
+            return reply.substring(kind.length() + 1);
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            try {
+                commands.close();
+            } catch (IOException exception) {
+                // Already exited
+            }
+            if (!process.waitFor(SERVER_REPLY_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private record ServerUsage(int peakThreads, long peakHeapBytes, long pinned) {
+    }
+
+    private record Result(long[] sortedLatencies, Duration duration, long errors) {
+
+        double throughput() {
+            return sortedLatencies.length / (duration.toNanos() / 1e9);
+        }
+
+        double percentile(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
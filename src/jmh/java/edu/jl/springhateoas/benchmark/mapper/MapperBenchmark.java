@@ -0,0 +1,65 @@
+package edu.jl.springhateoas.benchmark.mapper;
+
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.entity.UserEntity;
+import edu.jl.springhateoas.mapper.Mapper;
+import edu.jl.springhateoas.mapper.implementation.DirectMapper;
+import edu.jl.springhateoas.mapper.implementation.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of each {@link Mapper} method for the user conversions, per implementation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"model-mapper", "direct"})
+    private String implementation;
+
+    @Param({"100"})
+    private int listSize;
+
+    private Mapper mapper;
+    private UserEntity userEntity;
+    private UserRequestDto userRequestDto;
+    private List<UserEntity> userEntities;
+
+    @Setup
+    public void setUp() {
+        mapper = implementation.equals("direct") ? new DirectMapper() : new ModelMapper();
+        userEntity = new UserEntity(UUID.randomUUID(), "Alice", 25);
+        userRequestDto = new UserRequestDto("Bob", 30);
+        userEntities = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            userEntities.add(new UserEntity(UUID.randomUUID(), "User " + i, 15 + i % 60));
+        }
+    }
+
+    @Benchmark
+    public UserResponseDto convertObject() {
+        return mapper.convertObject(userEntity, UserResponseDto.class);
+    }
+
+    @Benchmark
+    public List<UserResponseDto> convertList() {
+        return mapper.convertList(userEntities, UserResponseDto.class);
+    }
+
+    @Benchmark
+    public UserEntity copyProperties() {
+        UserEntity destination = new UserEntity(userEntity.getId(), userEntity.getName(), userEntity.getAge());
+        mapper.copyProperties(userRequestDto, destination);
+        return destination;
+    }
+}
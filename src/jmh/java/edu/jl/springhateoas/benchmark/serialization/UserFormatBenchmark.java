@@ -0,0 +1,91 @@
+package edu.jl.springhateoas.benchmark.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.jl.springhateoas.benchmark.SeededApplication;
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.projection.UserFieldSelection;
+import edu.jl.springhateoas.search.UserSearch;
+import edu.jl.springhateoas.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the {@code findAll} and {@code /paged} results to HAL JSON, CBOR and Smile, with the mappers
+ * of the application's message converters. The payload sizes are printed once per trial.
+ * <p>
+ * {@code ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="UserFormatBenchmark -p rows=10000"}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserFormatBenchmark {
+
+    @Param({"1000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean hateoas;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private CollectionModel<UserResponseDto> users;
+    private PagedModel<UserResponseDto> page;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        context = SeededApplication.start("benchmark", rows, List.of());
+        objectMapper = switch (format) {
+            case "cbor" -> context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+            case "smile" -> context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+            default -> context.getBean(HalMediaTypeConfiguration.class)
+                    .configureObjectMapper(context.getBean(ObjectMapper.class).copy());
+        };
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/paged");
+        request.setServerPort(8080);
+        request.setQueryString("size=20&page=0&sort=name,asc&hateoas=" + hateoas);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        UserService userService = context.getBean(UserService.class);
+        users = userService.findAll(hateoas, UserFieldSelection.ALL);
+        page = userService.search(UserSearch.byName(""), hateoas, PageRequest.of(0, 20, Sort.by("name")), UserFieldSelection.ALL);
+        System.out.printf("%n%s payload (hateoas=%b): findAll %d bytes, /paged %d bytes%n",
+                format, hateoas, objectMapper.writeValueAsBytes(users).length, objectMapper.writeValueAsBytes(page).length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serializeFindAll() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
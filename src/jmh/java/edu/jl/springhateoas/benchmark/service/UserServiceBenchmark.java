@@ -0,0 +1,135 @@
+package edu.jl.springhateoas.benchmark.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.jl.springhateoas.benchmark.SeededApplication;
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.projection.UserFieldSelection;
+import edu.jl.springhateoas.search.UserSearch;
+import edu.jl.springhateoas.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The read paths of {@link UserService} against a seeded H2 database, from the repository call to the JSON the
+ * HAL message converter would write. The {@code serialize*} benchmarks only measure the Jackson part on results
+ * fetched beforehand.
+ * <p>
+ * {@code findByIdCached} reads through the users cache as the application does: once warmed up, every read is a
+ * hit while the rows fit in it ({@code maximumSize=10000}), a mix of hits and misses beyond. The application of
+ * {@code findByIdUncached} runs without it ({@code spring.cache.type=none}), so every read goes to the database.
+ * <p>
+ * {@code ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="UserServiceBenchmark -p rows=1000000"}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+    private static final String UNCACHED_SUFFIX = "Uncached";
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean hateoas;
+
+    @Param({"20"})
+    private int pageSize;
+
+    /**
+     * Sparse fieldset, empty for every field.
+     */
+    @Param({"", "id,name"})
+    private String fields;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private ObjectMapper halObjectMapper;
+    private List<UUID> ids;
+    private String name;
+    private Pageable pageable;
+    private UserFieldSelection selection;
+    private UserResponseDto user;
+    private PagedModel<UserResponseDto> page;
+
+    @Setup
+    public void setUp(BenchmarkParams benchmarkParams) {
+        List<String> properties = benchmarkParams.getBenchmark().endsWith(UNCACHED_SUFFIX)
+                ? List.of("spring.cache.type=none")
+                : List.of();
+        context = SeededApplication.start("benchmark", rows, properties);
+        userService = context.getBean(UserService.class);
+        halObjectMapper = context.getBean(HalMediaTypeConfiguration.class)
+                .configureObjectMapper(context.getBean(ObjectMapper.class).copy());
+        ids = SeededApplication.userIds(context);
+        name = SeededApplication.FIRST_NAMES.get(0).toLowerCase();
+        pageable = PageRequest.of(0, pageSize, Sort.by("name"));
+        selection = UserFieldSelection.of(fields, null);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/paged");
+        request.setServerPort(8080);
+        request.setQueryString("name=" + name + "&size=" + pageSize + "&page=0&sort=name,asc&hateoas=" + hateoas);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        user = userService.findById(ids.get(0), hateoas, selection);
+        page = userService.search(UserSearch.byName(name), hateoas, pageable, selection);
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] findByIdCached() throws JsonProcessingException {
+        UUID id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return halObjectMapper.writeValueAsBytes(userService.findById(id, hateoas, selection));
+    }
+
+    @Benchmark
+    public byte[] findByIdUncached() throws JsonProcessingException {
+        UUID id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return halObjectMapper.writeValueAsBytes(userService.findById(id, hateoas, selection));
+    }
+
+    @Benchmark
+    public byte[] findByNameContainingIgnoreCase() throws JsonProcessingException {
+        return halObjectMapper.writeValueAsBytes(userService.search(UserSearch.byName(name), hateoas, pageable, selection));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public byte[] findAll() throws JsonProcessingException {
+        CollectionModel<UserResponseDto> users = userService.findAll(hateoas, selection);
+        return halObjectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws JsonProcessingException {
+        return halObjectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return halObjectMapper.writeValueAsBytes(page);
+    }
+}
@@ -1,9 +1,24 @@
 package edu.jl.springhateoas;
 
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 
-@SpringBootApplication
+/**
+ * {@code @SpringBootApplication}, except that the reactive variant ({@code reactive} package, built with the
+ * {@code reactive} profile) is an application of its own: it is not scanned, and its R2DBC connection factory
+ * is not configured here.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(excludeName = "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
+@ComponentScan(excludeFilters = {
+		@ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+		@ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+		@ComponentScan.Filter(type = FilterType.REGEX, pattern = "edu\\.jl\\.springhateoas\\.reactive\\..*")})
 public class SpringHateoasApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,24 @@
+package edu.jl.springhateoas.async;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Gives the async processing of a handler method, such as writing the {@code StreamingResponseBody} it returns, a
+ * timeout of its own instead of {@code spring.mvc.async.request-timeout}.
+ *
+ * @see AsyncTimeoutInterceptor
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AsyncTimeout {
+
+    /**
+     * The timeout, as a duration or a placeholder resolving to one, e.g. {@code ${app.export.timeout:10m}}.
+     */
+    String value();
+}
@@ -0,0 +1,46 @@
+package edu.jl.springhateoas.async;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies the {@link AsyncTimeout} of the handler method to its async request, before the request is put in async
+ * mode. Handlers without it keep {@code spring.mvc.async.request-timeout}.
+ */
+public class AsyncTimeoutInterceptor implements CallableProcessingInterceptor {
+    private final PropertyResolver propertyResolver;
+    private final Map<Method, Optional<Duration>> timeouts = new ConcurrentHashMap<>();
+
+    public AsyncTimeoutInterceptor(PropertyResolver propertyResolver) {
+        this.propertyResolver = propertyResolver;
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (request instanceof AsyncWebRequest asyncWebRequest
+                && request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof HandlerMethod handlerMethod) {
+            timeouts.computeIfAbsent(handlerMethod.getMethod(), this::timeoutOf)
+                    .ifPresent(timeout -> asyncWebRequest.setTimeout(timeout.toMillis()));
+        }
+    }
+
+    private Optional<Duration> timeoutOf(Method method) {
+        AsyncTimeout asyncTimeout = AnnotatedElementUtils.findMergedAnnotation(method, AsyncTimeout.class);
+        return Optional.ofNullable(asyncTimeout)
+                .map(annotation -> DurationStyle.detectAndParse(propertyResolver.resolveRequiredPlaceholders(annotation.value())));
+    }
+}
@@ -0,0 +1,206 @@
+package edu.jl.springhateoas.compression;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses the responses of at least {@code minResponseSize} bytes in one of the {@code mimeTypes} with gzip
+ * or deflate, whichever the client accepts (gzip first), at the given {@link Deflater} level.
+ * <p>
+ * Compressed bodies of responses carrying an {@code ETag} are kept in a cache bounded to {@code cacheSize} bytes,
+ * keyed by request, encoding and entity tag, so an unchanged page is only compressed once. The compression ratio
+ * and the CPU time spent compressing are recorded in {@code http.server.responses.compression.ratio} and
+ * {@code http.server.responses.compression.time}, the cache in the {@code cache.*} meters of
+ * {@value #CACHE_NAME}. NDJSON streams are left alone, since the body would have to be buffered.
+ * <p>
+ * A strong {@code ETag} validates the exact bytes of the identity body, so a compressed response carries it as a
+ * weak one instead. It still matches the {@code If-None-Match} of the next request, which is compared weakly.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+    public static final String CACHE_NAME = "compressedResponses";
+    private static final List<String> ENCODINGS = List.of("gzip", "deflate");
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final int minResponseSize;
+    private final int level;
+    private final List<MediaType> mimeTypes;
+    private final Cache<String, byte[]> compressedBodies;
+    private final Map<String, DistributionSummary> ratios;
+    private final Map<String, Timer> times;
+
+    public ResponseCompressionFilter(DataSize minResponseSize, int level, List<MediaType> mimeTypes, DataSize cacheSize,
+                                     MeterRegistry meterRegistry) {
+        this.minResponseSize = (int) minResponseSize.toBytes();
+        this.level = level;
+        this.mimeTypes = mimeTypes;
+        this.compressedBodies = Caffeine.newBuilder()
+                .maximumWeight(cacheSize.toBytes())
+                .<String, byte[]>weigher((key, body) -> key.length() + body.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, compressedBodies, CACHE_NAME);
+        this.ratios = Map.of(
+                "gzip", ratioSummary("gzip", meterRegistry),
+                "deflate", ratioSummary("deflate", meterRegistry));
+        this.times = Map.of(
+                "gzip", timeTimer("gzip", meterRegistry),
+                "deflate", timeTimer("deflate", meterRegistry));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return !"GET".equals(request.getMethod())
+                || (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+
+        if (!isCompressible(responseWrapper)) {
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String encoding = encodingOf(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding == null || responseWrapper.getContentSize() < minResponseSize) {
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] body = responseWrapper.getContentAsByteArray();
+        String eTag = responseWrapper.getHeader(HttpHeaders.ETAG);
+        byte[] compressedBody = eTag == null
+                ? compress(body, encoding)
+                : compressedBodies.get(cacheKeyOf(request, responseWrapper, encoding, eTag), key -> compress(body, encoding));
+        if (eTag != null && !eTag.startsWith("W/")) {
+            response.setHeader(HttpHeaders.ETAG, "W/" + eTag);
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        response.setContentLength(compressedBody.length);
+        response.getOutputStream().write(compressedBody);
+    }
+
+    private boolean isCompressible(HttpServletResponse response) {
+        if (response.getStatus() < 200 || response.getStatus() >= 300 || response.getContentType() == null
+                || response.getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            return false;
+        }
+        MediaType contentType = MediaType.parseMediaType(response.getContentType());
+        return mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(contentType));
+    }
+
+    /**
+     * First of gzip and deflate that the {@code Accept-Encoding} header does not exclude with {@code q=0}.
+     */
+    private static String encodingOf(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        for (String encoding : ENCODINGS) {
+            for (String accepted : acceptEncoding.split(",")) {
+                String[] parameters = accepted.trim().split(";");
+                if (parameters[0].trim().equalsIgnoreCase(encoding) && !isZeroQuality(parameters)) {
+                    return encoding;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isZeroQuality(String[] parameters) {
+        for (int index = 1; index < parameters.length; index++) {
+            String parameter = parameters[index].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException exception) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String cacheKeyOf(HttpServletRequest request, HttpServletResponse response, String encoding, String eTag) {
+        String query = request.getQueryString();
+        return encoding + ' ' + response.getContentType() + ' ' + eTag + ' ' + request.getRequestURI()
+                + (query == null ? "" : "?" + query);
+    }
+
+    private byte[] compress(byte[] body, String encoding) {
+        long startCpu = THREADS.getCurrentThreadCpuTime();
+        long start = System.nanoTime();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        Deflater deflater = encoding.equals("gzip") ? null : new Deflater(level);
+        try (OutputStream output = deflater == null
+                ? new LeveledGzipOutputStream(compressed, level)
+                : new DeflaterOutputStream(compressed, deflater)) {
+            output.write(body);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        // Virtual threads do not report their CPU time, the elapsed time stands in for it
+        long endCpu = startCpu < 0 ? -1 : THREADS.getCurrentThreadCpuTime();
+        times.get(encoding).record(endCpu < 0 ? System.nanoTime() - start : endCpu - startCpu, TimeUnit.NANOSECONDS);
+        ratios.get(encoding).record((double) compressed.size() / body.length);
+        return compressed.toByteArray();
+    }
+
+    private static DistributionSummary ratioSummary(String encoding, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("http.server.responses.compression.ratio")
+                .description("Compressed size over original size of the compressed responses")
+                .tag("encoding", encoding)
+                .register(meterRegistry);
+    }
+
+    private static Timer timeTimer(String encoding, MeterRegistry meterRegistry) {
+        return Timer.builder("http.server.responses.compression.time")
+                .description("CPU time spent compressing responses, cache misses only")
+                .tag("encoding", encoding)
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@link GZIPOutputStream} at a given level, which it only takes through its deflater.
+     */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(OutputStream output, int level) throws IOException {
+            super(output);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package edu.jl.springhateoas.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class DataSourceConfiguration {
+    /**
+     * Sizes the Hikari pool to {@code app.datasource.pool-size-per-core} connections per available processor,
+     * with as many kept idle so the pool never shrinks under a burst. Static, as a bean post processor.
+     */
+    @Bean
+    @ConditionalOnProperty("app.datasource.pool-size-per-core")
+    public static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        int poolSizePerCore = environment.getRequiredProperty("app.datasource.pool-size-per-core", Integer.class);
+        int poolSize = Math.max(1, poolSizePerCore * Runtime.getRuntime().availableProcessors());
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    dataSource.setMaximumPoolSize(poolSize);
+                    dataSource.setMinimumIdle(poolSize);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package edu.jl.springhateoas.configuration;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+@Configuration
+public class HalJacksonConfiguration {
+    /**
+     * Writes a single user the same way the HAL message converter does, for responses that bypass the
+     * message converters (e.g. NDJSON streams). The writer neither flushes after each value nor closes the
+     * target, the caller owns the output.
+     */
+    @Bean
+    public ObjectWriter userResponseHalWriter(ObjectMapper objectMapper, HalMediaTypeConfiguration halMediaTypeConfiguration) {
+        return halMediaTypeConfiguration.configureObjectMapper(objectMapper.copy())
+                .writerFor(UserResponseDto.class)
+                .withRootValueSeparator((String) null)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * {@code application/cbor} responses with the HAL structure of the JSON ones ({@code _links}, {@code _embedded}).
+     * Spring Boot puts it in place of the default CBOR converter, which would write links as a plain list.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter halCborMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder, HalMediaTypeConfiguration halMediaTypeConfiguration) {
+        ObjectMapper cborMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+        return new MappingJackson2CborHttpMessageConverter(halMediaTypeConfiguration.configureObjectMapper(cborMapper));
+    }
+
+    /**
+     * {@code application/x-jackson-smile} responses with the HAL structure of the JSON ones, see
+     * {@link #halCborMessageConverter}.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter halSmileMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder, HalMediaTypeConfiguration halMediaTypeConfiguration) {
+        ObjectMapper smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+        return new MappingJackson2SmileHttpMessageConverter(halMediaTypeConfiguration.configureObjectMapper(smileMapper));
+    }
+}
@@ -1,11 +1,39 @@
 package edu.jl.springhateoas.configuration;
 
+import edu.jl.springhateoas.async.AsyncTimeoutInterceptor;
+import edu.jl.springhateoas.compression.ResponseCompressionFilter;
+import edu.jl.springhateoas.preference.PreferenceRequestCondition;
+import edu.jl.springhateoas.preference.Preferred;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.List;
 
 @Configuration
 public class WebConfiguration implements WebMvcConfigurer {
+    private final Environment environment;
+
+    public WebConfiguration(Environment environment) {
+        this.environment = environment;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry
@@ -13,4 +41,64 @@ public class WebConfiguration implements WebMvcConfigurer {
                 .allowedOrigins("*")
                 .allowedMethods("*");
     }
+
+    /**
+     * Lets the long-running streams, exports and imports set their own timeout with
+     * {@link edu.jl.springhateoas.async.AsyncTimeout}, rather than raising it for every async request.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new AsyncTimeoutInterceptor(environment));
+    }
+
+    /**
+     * Lets handler methods be narrowed to a {@code Prefer} preference with {@link Preferred}, which a
+     * {@code headers} condition can only do by matching the whole header value.
+     */
+    @Bean
+    public WebMvcRegistrations preferenceMappingRegistrations() {
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+                return new RequestMappingHandlerMapping() {
+                    @Override
+                    protected RequestCondition<?> getCustomMethodCondition(Method method) {
+                        Preferred preferred = AnnotatedElementUtils.findMergedAnnotation(method, Preferred.class);
+                        return preferred == null ? null : new PreferenceRequestCondition(preferred.value());
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * ETags for the user collections, hashed from the rendered body: they save the bandwidth of unchanged
+     * collections. Single users carry version-based ETags set by the controller instead.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> userCollectionsETagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/v1/users", "/api/v1/users/paged");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Compression of the user collections, ahead of the ETag filter so that it sees the entity tag of the body
+     * it compresses. Compressed responses carry that entity tag as a weak one and vary by {@code Accept-Encoding}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.compression.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ResponseCompressionFilter> userCollectionsCompressionFilter(
+            @Value("${app.compression.min-response-size:2KB}") DataSize minResponseSize,
+            @Value("${app.compression.level:6}") int level,
+            @Value("${app.compression.mime-types:application/json,application/hal+json}") List<MediaType> mimeTypes,
+            @Value("${app.compression.cache-size:32MB}") DataSize cacheSize,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ResponseCompressionFilter> registration = new FilterRegistrationBean<>(
+                new ResponseCompressionFilter(minResponseSize, level, mimeTypes, cacheSize, meterRegistry));
+        registration.addUrlPatterns("/api/v1/users", "/api/v1/users/paged");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return registration;
+    }
 }
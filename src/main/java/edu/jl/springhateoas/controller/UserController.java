@@ -1,26 +1,58 @@
 package edu.jl.springhateoas.controller;
 
+import edu.jl.springhateoas.async.AsyncTimeout;
+import edu.jl.springhateoas.dto.batch.BatchResponseDto;
+import edu.jl.springhateoas.dto.user.UserBatchUpdateRequestDto;
 import edu.jl.springhateoas.dto.user.UserRequestDto;
 import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.dto.user.UserStatisticsDto;
+import edu.jl.springhateoas.exception.BadRequestException;
+import edu.jl.springhateoas.exception.PreconditionFailedException;
+import edu.jl.springhateoas.export.UserExportFormat;
+import edu.jl.springhateoas.importing.UserImportFormat;
+import edu.jl.springhateoas.pagination.UserCursor;
+import edu.jl.springhateoas.projection.UserFieldSelection;
+import edu.jl.springhateoas.search.UserSearch;
 import edu.jl.springhateoas.service.UserService;
 import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springdoc.core.converters.models.PageableAsQueryParam;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/users")
 public class UserController {
+    private static final String HATEOAS_ETAG_SUFFIX = "-hateoas";
+    private static final String CBOR_ETAG_SUFFIX = "-cbor";
+    private static final String SMILE_ETAG_SUFFIX = "-smile";
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     private final UserService userService;
 
     @Autowired
@@ -31,25 +63,83 @@ public class UserController {
     @GetMapping("/{id}")
     public ResponseEntity<UserResponseDto> findById(
             @PathVariable(name = "id") UUID id,
-            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled) {
+            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "rels", required = false) String rels,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest,
+            HttpServletResponse response) {
+        UserFieldSelection selection = UserFieldSelection.of(fields, rels);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (webRequest.checkNotModified(eTagOf(userService.findVersionById(id), hateoasEnabled, selection, accept))) {
+            return null;
+        }
+        UserResponseDto userResponse = userService.findById(id, hateoasEnabled, selection);
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(userService.findById(id, hateoasEnabled));
+                .eTag(eTagOf(userResponse.getVersion(), hateoasEnabled, selection, accept))
+                .body(userResponse);
     }
 
     @GetMapping
     public ResponseEntity<CollectionModel<UserResponseDto>> findAll(
-            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled) {
+            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "rels", required = false) String rels) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(userService.findAll(hateoasEnabled, UserFieldSelection.of(fields, rels)));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @AsyncTimeout("${app.stream.timeout:10m}")
+    public ResponseEntity<StreamingResponseBody> streamAll(
+            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled,
+            HttpServletRequest request) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userService.streamAll(hateoasEnabled));
+    }
+
+    @GetMapping("/export")
+    @AsyncTimeout("${app.export.timeout:10m}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        UserExportFormat exportFormat = UserExportFormat.of(format);
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(userService.findAll(hateoasEnabled));
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(exportFormat.fileName()).build().toString())
+                .body(userService.export(exportFormat));
+    }
+
+    @PostMapping(value = "/import", consumes = {UserImportFormat.CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @AsyncTimeout("${app.import.timeout:10m}")
+    public ResponseEntity<StreamingResponseBody> importUsers(HttpServletRequest request) throws IOException {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userService.importUsers(MediaType.parseMediaType(request.getContentType()), request.getInputStream()));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<UserStatisticsDto> statistics() {
+        return ResponseEntity.ok(userService.statistics());
     }
 
     @GetMapping("/paged")
     @PageableAsQueryParam
     public ResponseEntity<PagedModel<UserResponseDto>> findByNameContainingIgnoreCase(
             @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "minAge", required = false) Integer minAge,
+            @RequestParam(name = "maxAge", required = false) Integer maxAge,
             @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "rels", required = false) String rels,
             @Parameter(hidden = true)
             @PageableDefault(
                     size = 20,
@@ -58,7 +148,41 @@ public class UserController {
                     sort = {"name"})
             Pageable pageable) {
 
-        return ResponseEntity.ok(userService.findByNameContainingIgnoreCase(name, hateoasEnabled, pageable));
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(userService.search(UserSearch.of(name, minAge, maxAge), hateoasEnabled, pageable, UserFieldSelection.of(fields, rels)));
+    }
+
+    /**
+     * Also mapped when {@code before} comes with {@code after}, which the handler of {@code before} excludes, so
+     * that the combination is rejected rather than ambiguous.
+     */
+    @GetMapping(value = "/paged", params = "after")
+    public ResponseEntity<CollectionModel<UserResponseDto>> findByNameContainingIgnoreCaseAfter(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "minAge", required = false) Integer minAge,
+            @RequestParam(name = "maxAge", required = false) Integer maxAge,
+            @RequestParam(name = "after") String after,
+            @Parameter(hidden = true) @RequestParam(name = "before", required = false) String before,
+            @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(2000) int size,
+            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "rels", required = false) String rels) {
+        if (before != null) {
+            throw new BadRequestException("Parameters after and before cannot be combined!");
+        }
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(userService.search(UserSearch.of(name, minAge, maxAge), hateoasEnabled, UserCursor.after(after), size, UserFieldSelection.of(fields, rels)));
+    }
+
+    @GetMapping(value = "/paged", params = {"before", "!after"})
+    public ResponseEntity<CollectionModel<UserResponseDto>> findByNameContainingIgnoreCaseBefore(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "minAge", required = false) Integer minAge,
+            @RequestParam(name = "maxAge", required = false) Integer maxAge,
+            @RequestParam(name = "before") String before,
+            @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(2000) int size,
+            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "rels", required = false) String rels) {
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(userService.search(UserSearch.of(name, minAge, maxAge), hateoasEnabled, UserCursor.before(before), size, UserFieldSelection.of(fields, rels)));
     }
 
     @PostMapping
@@ -74,8 +198,15 @@ public class UserController {
     public ResponseEntity<UserResponseDto> update(
             @PathVariable(name = "id") UUID id,
             @RequestBody @Valid UserRequestDto userUpdate,
-            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled) {
-        return ResponseEntity.ok(userService.update(id, userUpdate, hateoasEnabled));
+            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+        UserResponseDto updatedUser = userService.update(id, userUpdate, hateoasEnabled, versionOf(ifMatch));
+        return ResponseEntity
+                .ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(eTagOf(updatedUser.getVersion(), hateoasEnabled, UserFieldSelection.ALL, accept))
+                .body(updatedUser);
     }
 
     @DeleteMapping("/{id}")
@@ -86,4 +217,81 @@ public class UserController {
                 .build();
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponseDto> saveAll(@RequestBody List<UserRequestDto> userRequests) {
+        return ResponseEntity.ok(userService.saveAll(userRequests));
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<BatchResponseDto> updateAll(@RequestBody List<UserBatchUpdateRequestDto> userUpdates) {
+        return ResponseEntity.ok(userService.updateAll(userUpdates));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<BatchResponseDto> deleteAll(@RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(userService.deleteAll(ids));
+    }
+
+    /**
+     * Strong ETag of a user: its entity version, told apart by the media type the {@code Accept} header negotiates,
+     * by whether the representation carries links and by the selected fields and links. A strong ETag promises
+     * identical bytes, which the JSON, CBOR and Smile representations of one version are not.
+     */
+    private static String eTagOf(Long version, boolean hateoasEnabled, UserFieldSelection selection, String accept) {
+        return "\"" + version + mediaTypeETagSuffixOf(accept) + (hateoasEnabled ? HATEOAS_ETAG_SUFFIX : "")
+                + selection.eTagSuffix() + "\"";
+    }
+
+    /**
+     * Suffix of the binary media type a request negotiates, empty for JSON. Resolved the way the message
+     * converters are chosen: among the acceptable media types by decreasing quality, and in the given order among
+     * equal ones, the first that JSON, CBOR or Smile is compatible with wins, JSON being tried first.
+     */
+    private static String mediaTypeETagSuffixOf(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "";
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException exception) {
+            return "";
+        }
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : acceptable) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) || mediaType.isCompatibleWith(MediaTypes.HAL_JSON)) {
+                return "";
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return CBOR_ETAG_SUFFIX;
+            }
+            if (mediaType.isCompatibleWith(SMILE)) {
+                return SMILE_ETAG_SUFFIX;
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Version a conditional update expects, or {@code null} for an unconditional one: what an ETag of ours holds
+     * before any suffix telling its representations apart. Anything that is not a strong ETag of ours can never
+     * match.
+     */
+    private static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        try {
+            if (eTag.length() < 2 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+                throw new NumberFormatException(eTag);
+            }
+            eTag = eTag.substring(1, eTag.length() - 1);
+            int suffix = eTag.indexOf('-');
+            return Long.parseLong(suffix < 0 ? eTag : eTag.substring(0, suffix));
+        } catch (NumberFormatException exception) {
+            throw new PreconditionFailedException("If-Match " + ifMatch + " does not match any version of the user!");
+        }
+    }
+
 }
@@ -0,0 +1,64 @@
+package edu.jl.springhateoas.controller;
+
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.dto.user.UserWriteStatusDto;
+import edu.jl.springhateoas.preference.Preferred;
+import edu.jl.springhateoas.writebehind.UserWriteBehindQueue;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Write-behind saves, requested with {@code Prefer: respond-async}, alone or among other preferences. Without
+ * write-behind, the preference is ignored and {@link UserController#save} answers.
+ */
+@RestController
+@RequestMapping("/api/v1/users")
+@ConditionalOnProperty(name = "app.write-behind.enabled", havingValue = "true")
+public class UserWriteBehindController {
+    private static final String RESPOND_ASYNC = "respond-async";
+
+    private final UserWriteBehindQueue userWriteBehindQueue;
+
+    @Autowired
+    public UserWriteBehindController(UserWriteBehindQueue userWriteBehindQueue) {
+        this.userWriteBehindQueue = userWriteBehindQueue;
+    }
+
+    @PostMapping
+    @Preferred(RESPOND_ASYNC)
+    public ResponseEntity<UserWriteStatusDto> saveBehind(@Valid @RequestBody UserRequestDto userRequestDto) {
+        UserWriteStatusDto pending = userWriteBehindQueue.enqueue(userRequestDto);
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .location(uriOf("/api/v1/users/writes/{id}", pending.id()))
+                .header("Preference-Applied", RESPOND_ASYNC)
+                .body(pending);
+    }
+
+    /**
+     * Status of a write-behind save, redirecting to the user once it is written.
+     */
+    @GetMapping("/writes/{id}")
+    public ResponseEntity<UserWriteStatusDto> findWriteStatus(@PathVariable(name = "id") UUID id) {
+        UserWriteStatusDto status = userWriteBehindQueue.findStatus(id);
+        if (status.status() == UserWriteStatusDto.Status.WRITTEN) {
+            return ResponseEntity
+                    .status(HttpStatus.SEE_OTHER)
+                    .location(uriOf("/api/v1/users/{id}", id))
+                    .body(status);
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    private static URI uriOf(String path, UUID id) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath().path(path).buildAndExpand(id).toUri();
+    }
+}
@@ -0,0 +1,10 @@
+package edu.jl.springhateoas.dto.batch;
+
+import java.util.UUID;
+
+public record BatchItemResponseDto(
+        int index,
+        UUID id,
+        int status,
+        String message) {
+}
@@ -0,0 +1,14 @@
+package edu.jl.springhateoas.dto.batch;
+
+import java.util.List;
+
+public record BatchResponseDto(
+        int succeeded,
+        int failed,
+        List<BatchItemResponseDto> items) {
+
+    public static BatchResponseDto of(List<BatchItemResponseDto> items) {
+        int succeeded = (int) items.stream().filter(item -> item.status() < 300).count();
+        return new BatchResponseDto(succeeded, items.size() - succeeded, items);
+    }
+}
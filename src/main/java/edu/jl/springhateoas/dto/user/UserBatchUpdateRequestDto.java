@@ -0,0 +1,67 @@
+package edu.jl.springhateoas.dto.user;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+public class UserBatchUpdateRequestDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    @NotNull
+    private UUID id;
+    @NotBlank
+    private String name;
+    @NotNull @Min(15)
+    private Integer age;
+
+    public UserBatchUpdateRequestDto() {
+    }
+
+    public UserBatchUpdateRequestDto(UUID id, String name, Integer age) {
+        this.id = id;
+        this.name = name;
+        this.age = age;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (object == null || getClass() != object.getClass()) return false;
+        UserBatchUpdateRequestDto that = (UserBatchUpdateRequestDto) object;
+        return Objects.equals(id, that.id) && Objects.equals(name, that.name) && Objects.equals(age, that.age);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, age);
+    }
+}
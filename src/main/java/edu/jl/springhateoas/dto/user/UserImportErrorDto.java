@@ -0,0 +1,9 @@
+package edu.jl.springhateoas.dto.user;
+
+/**
+ * A row of an import that was not imported, by the line it starts on.
+ */
+public record UserImportErrorDto(
+        long line,
+        String message) {
+}
@@ -0,0 +1,12 @@
+package edu.jl.springhateoas.dto.user;
+
+/**
+ * Progress of an import: the rows read so far, and how many of them were imported or failed. The rows in between
+ * are still on their way through the pipeline. The last progress of an import is {@code done}.
+ */
+public record UserImportProgressDto(
+        long read,
+        long imported,
+        long failed,
+        boolean done) {
+}
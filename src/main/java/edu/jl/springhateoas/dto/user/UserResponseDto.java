@@ -1,5 +1,7 @@
 package edu.jl.springhateoas.dto.user;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.apache.catalina.User;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.RepresentationModel;
@@ -9,12 +11,16 @@ import java.io.Serializable;
 import java.util.Objects;
 import java.util.UUID;
 
+// Fields left out of a sparse fieldset are null and not serialized
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class UserResponseDto extends RepresentationModel<UserResponseDto> implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
     private UUID id;
     private String name;
     private Integer age;
+    @JsonIgnore
+    private Long version;
 
     public UserResponseDto(){}
 
@@ -56,6 +62,14 @@ public class UserResponseDto extends RepresentationModel<UserResponseDto> implem
         this.age = age;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object object) {
         if (this == object) return true;
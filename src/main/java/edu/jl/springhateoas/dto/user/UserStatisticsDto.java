@@ -0,0 +1,21 @@
+package edu.jl.springhateoas.dto.user;
+
+import java.util.List;
+
+/**
+ * Count and ages of the users, with the number of users in each age bucket from the youngest to the oldest.
+ * Without users, the ages are {@code null} and the histogram is empty.
+ */
+public record UserStatisticsDto(
+        long count,
+        Integer minAge,
+        Integer maxAge,
+        Double averageAge,
+        List<AgeBucket> histogram) {
+
+    public record AgeBucket(
+            int minAge,
+            int maxAge,
+            long count) {
+    }
+}
@@ -0,0 +1,28 @@
+package edu.jl.springhateoas.dto.user;
+
+import java.util.UUID;
+
+/**
+ * Progress of a write-behind save. Only a failed one carries a message.
+ */
+public record UserWriteStatusDto(
+        UUID id,
+        Status status,
+        String message) {
+
+    public enum Status {
+        PENDING, WRITTEN, FAILED
+    }
+
+    public static UserWriteStatusDto pending(UUID id) {
+        return new UserWriteStatusDto(id, Status.PENDING, null);
+    }
+
+    public static UserWriteStatusDto written(UUID id) {
+        return new UserWriteStatusDto(id, Status.WRITTEN, null);
+    }
+
+    public static UserWriteStatusDto failed(UUID id, String message) {
+        return new UserWriteStatusDto(id, Status.FAILED, message);
+    }
+}
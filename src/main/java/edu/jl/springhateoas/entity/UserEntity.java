@@ -1,19 +1,31 @@
 package edu.jl.springhateoas.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 import java.util.UUID;
 
+/**
+ * Kept in the {@value #CACHE_REGION} region of the Hibernate second-level cache when it is enabled
+ * ({@code app.hibernate.second-level-cache}).
+ */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserEntity.CACHE_REGION)
 public class UserEntity {
+    public static final String CACHE_REGION = "userEntities";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "user_id")
     private UUID id;
     private String name;
     private Integer age;
+    @Version
+    private Long version;
 
     public UserEntity() {
     }
@@ -48,16 +60,24 @@ public class UserEntity {
         this.age = age;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object object) {
         if (this == object) return true;
         if (object == null || getClass() != object.getClass()) return false;
         UserEntity userEntity = (UserEntity) object;
-        return Objects.equals(id, userEntity.id) && Objects.equals(name, userEntity.name) && Objects.equals(age, userEntity.age);
+        return Objects.equals(id, userEntity.id) && Objects.equals(name, userEntity.name) && Objects.equals(age, userEntity.age) && Objects.equals(version, userEntity.version);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, age);
+        return Objects.hash(id, name, age, version);
     }
 }
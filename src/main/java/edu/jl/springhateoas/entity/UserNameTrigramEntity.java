@@ -0,0 +1,64 @@
+package edu.jl.springhateoas.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * One trigram of a user name. Rows are maintained by the database (see
+ * {@link edu.jl.springhateoas.search.UserNameTrigramTrigger}), the application only queries them.
+ */
+@Entity
+@Immutable
+@Table(name = "user_name_trigrams")
+@IdClass(UserNameTrigramEntity.Key.class)
+public class UserNameTrigramEntity {
+    @Id
+    private String trigram;
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    public UserNameTrigramEntity() {
+    }
+
+    public String getTrigram() {
+        return trigram;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        private String trigram;
+        private UUID userId;
+
+        public Key() {
+        }
+
+        public Key(String trigram, UUID userId) {
+            this.trigram = trigram;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) return true;
+            if (object == null || getClass() != object.getClass()) return false;
+            Key key = (Key) object;
+            return Objects.equals(trigram, key.trigram) && Objects.equals(userId, key.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(trigram, userId);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package edu.jl.springhateoas.event;
+
+import edu.jl.springhateoas.entity.UserEntity;
+
+import java.util.UUID;
+
+/**
+ * A user write made through {@code UserService}, published once it is committed. Deletions only carry the id.
+ * Updates and deletions also carry the age the user had before the write when it is known, {@code null} otherwise.
+ */
+public record UserChangeEvent(Type type, UUID id, String name, Integer age, Long version, Integer previousAge) {
+
+    public enum Type {
+        SAVED, UPDATED, DELETED
+    }
+
+    public UserChangeEvent(Type type, UUID id, String name, Integer age, Long version) {
+        this(type, id, name, age, version, null);
+    }
+
+    public static UserChangeEvent saved(UserEntity user) {
+        return new UserChangeEvent(Type.SAVED, user.getId(), user.getName(), user.getAge(), user.getVersion());
+    }
+
+    public static UserChangeEvent updated(UserEntity user, Integer previousAge) {
+        return updated(user.getId(), user.getName(), user.getAge(), user.getVersion(), previousAge);
+    }
+
+    public static UserChangeEvent updated(UUID id, String name, Integer age, Long version, Integer previousAge) {
+        return new UserChangeEvent(Type.UPDATED, id, name, age, version, previousAge);
+    }
+
+    public static UserChangeEvent deleted(UUID id, Integer previousAge) {
+        return new UserChangeEvent(Type.DELETED, id, null, null, null, previousAge);
+    }
+}
@@ -0,0 +1,7 @@
+package edu.jl.springhateoas.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,8 @@
 package edu.jl.springhateoas.exception;
 
 import edu.jl.springhateoas.dto.exception.ExceptionResponseDto;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -14,6 +16,7 @@ import java.util.Date;
 @RestController
 @ControllerAdvice
 public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
+    private static final String RETRY_AFTER_SECONDS = "1";
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ExceptionResponseDto> handlerException(WebRequest webRequest, Exception exception) {
@@ -29,6 +32,28 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
                 .body(buildResponseDto(webRequest, resourceNotFoundException));
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ExceptionResponseDto> handlerBadRequestException(WebRequest webRequest, BadRequestException badRequestException) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(buildResponseDto(webRequest, badRequestException));
+    }
+
+    @ExceptionHandler({PreconditionFailedException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ExceptionResponseDto> handlerPreconditionFailedException(WebRequest webRequest, RuntimeException preconditionFailedException) {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(buildResponseDto(webRequest, preconditionFailedException));
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ExceptionResponseDto> handlerTooManyRequestsException(WebRequest webRequest, TooManyRequestsException tooManyRequestsException) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(buildResponseDto(webRequest, tooManyRequestsException));
+    }
+
     private ExceptionResponseDto buildResponseDto(WebRequest webRequest, Exception exception) {
         return new ExceptionResponseDto(new Date(), webRequest.getDescription(false), exception.getMessage());
     }
@@ -0,0 +1,7 @@
+package edu.jl.springhateoas.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package edu.jl.springhateoas.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,86 @@
+package edu.jl.springhateoas.export;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import edu.jl.springhateoas.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Line formats of the user export, each writing the {@code id}, {@code name} and {@code age} of a user as UTF-8.
+ */
+public enum UserExportFormat {
+    /**
+     * RFC 4180, with a header line. Names are quoted only when they hold a comma, a quote or a line break.
+     */
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "id,name,age\n") {
+        @Override
+        void writeUser(ByteArrayOutputStream output, UUID id, String name, int age) {
+            output.writeBytes(id.toString().getBytes(StandardCharsets.US_ASCII));
+            output.write(',');
+            if (name.indexOf(',') >= 0 || name.indexOf('"') >= 0 || name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0) {
+                output.write('"');
+                output.writeBytes(name.replace("\"", "\"\"").getBytes(StandardCharsets.UTF_8));
+                output.write('"');
+            } else {
+                output.writeBytes(name.getBytes(StandardCharsets.UTF_8));
+            }
+            output.write(',');
+            output.writeBytes(Integer.toString(age).getBytes(StandardCharsets.US_ASCII));
+            output.write('\n');
+        }
+    },
+    /**
+     * One JSON object per line, with the properties of a user response without links.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "") {
+        @Override
+        void writeUser(ByteArrayOutputStream output, UUID id, String name, int age) {
+            output.writeBytes(ID_PROPERTY);
+            output.writeBytes(id.toString().getBytes(StandardCharsets.US_ASCII));
+            output.writeBytes(NAME_PROPERTY);
+            output.writeBytes(JsonStringEncoder.getInstance().quoteAsUTF8(name));
+            output.writeBytes(AGE_PROPERTY);
+            output.writeBytes(Integer.toString(age).getBytes(StandardCharsets.US_ASCII));
+            output.writeBytes(END_OF_USER);
+        }
+    };
+
+    private static final byte[] ID_PROPERTY = "{\"id\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NAME_PROPERTY = "\",\"name\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] AGE_PROPERTY = "\",\"age\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END_OF_USER = "}\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final MediaType mediaType;
+    private final byte[] header;
+
+    UserExportFormat(MediaType mediaType, String header) {
+        this.mediaType = mediaType;
+        this.header = header.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static UserExportFormat of(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            throw new BadRequestException("Users cannot be exported as " + format + ", only as csv or ndjson!");
+        }
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String fileName() {
+        return "users." + name().toLowerCase(Locale.ROOT);
+    }
+
+    byte[] header() {
+        return header;
+    }
+
+    abstract void writeUser(ByteArrayOutputStream output, UUID id, String name, int age);
+}
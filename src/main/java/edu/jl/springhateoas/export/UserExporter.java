@@ -0,0 +1,230 @@
+package edu.jl.springhateoas.export;
+
+import com.zaxxer.hikari.HikariDataSource;
+import edu.jl.springhateoas.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exports every user without going through entities, responses or links.
+ * <p>
+ * The UUID key space is split into {@code app.export.parallelism} ranges (by default one per core, but at most
+ * half the connection pool), each scanned over the primary key by a thread of its own, on a connection of its own.
+ * The scanners format their rows into chunks of {@code app.export.chunk-size} and hand them over through a queue
+ * of {@code app.export.buffer-chunks}, which the response drains in whatever order they come; a slow client thus
+ * holds back the scanners instead of filling memory. The scanner threads are shared by all exports, so they never
+ * hold more connections than the parallelism, and the ranges of concurrent exports wait for one another. A client
+ * that takes no chunk for {@code app.export.stall-timeout} fails its export, whose scans then give their threads
+ * back, so a stalled client holds back the other exports for that long at most.
+ */
+@Component
+public class UserExporter {
+    private static final Logger logger = LoggerFactory.getLogger(UserExporter.class);
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final byte[] END_OF_RANGE = new byte[0];
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int parallelism;
+    private final int chunkSize;
+    private final int bufferChunks;
+    private final Duration stallTimeout;
+    private final ExecutorService scanners;
+
+    @Autowired
+    public UserExporter(
+            DataSource dataSource,
+            @Value("${app.export.parallelism:0}") int parallelism,
+            @Value("${app.export.chunk-size:64KB}") DataSize chunkSize,
+            @Value("${app.export.buffer-chunks:16}") int bufferChunks,
+            @Value("${app.export.stall-timeout:30s}") Duration stallTimeout) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(Integer.parseInt(UserRepository.STREAM_FETCH_SIZE));
+        this.parallelism = parallelism > 0 ? parallelism : defaultParallelism(dataSource);
+        this.chunkSize = (int) chunkSize.toBytes();
+        this.bufferChunks = bufferChunks;
+        this.stallTimeout = stallTimeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.scanners = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "user-export-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanners.shutdownNow();
+    }
+
+    public StreamingResponseBody export(UserExportFormat format) {
+        return outputStream -> new Export(format).writeTo(outputStream);
+    }
+
+    private static int defaultParallelism(DataSource dataSource) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return Math.max(1, Math.min(cores, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() / 2));
+            }
+        } catch (SQLException exception) {
+            logger.debug("Could not size the export parallelism after the connection pool", exception);
+        }
+        return cores;
+    }
+
+    /**
+     * Lower bound of each range of the key space, or {@code null} for the first one. H2 orders UUIDs by their
+     * unsigned most significant bits first, so the bounds split those evenly.
+     */
+    static List<UUID> rangeBounds(int ranges) {
+        long step = Long.divideUnsigned(-1L, ranges) + 1;
+        List<UUID> bounds = new ArrayList<>(ranges);
+        bounds.add(null);
+        for (int range = 1; range < ranges; range++) {
+            bounds.add(new UUID(step * range, 0));
+        }
+        return bounds;
+    }
+
+    private final class Export {
+        private final UserExportFormat format;
+        private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(bufferChunks);
+        private volatile boolean cancelled;
+        private volatile Exception failure;
+
+        Export(UserExportFormat format) {
+            this.format = format;
+        }
+
+        void writeTo(OutputStream outputStream) throws IOException {
+            List<UUID> bounds = rangeBounds(parallelism);
+            for (int range = 0; range < bounds.size(); range++) {
+                UUID lowerBound = bounds.get(range);
+                UUID upperBound = range + 1 < bounds.size() ? bounds.get(range + 1) : null;
+                scanners.execute(() -> scan(lowerBound, upperBound));
+            }
+            try {
+                outputStream.write(format.header());
+                int endedRanges = 0;
+                while (endedRanges < bounds.size()) {
+                    // Polled, so that a failed scan ends the export even before the other ranges are scanned
+                    byte[] chunk = chunks.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (failure != null) {
+                        throw new IllegalStateException("Export of the users failed", failure);
+                    }
+                    if (chunk == null) {
+                        continue;
+                    }
+                    if (chunk == END_OF_RANGE) {
+                        endedRanges++;
+                    } else {
+                        outputStream.write(chunk);
+                    }
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+                throw new InterruptedIOException("Export of the users was interrupted");
+            } catch (RuntimeException | IOException exception) {
+                cancelled = true;
+                throw exception;
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Export of the users failed", failure);
+            }
+        }
+
+        private void scan(UUID lowerBound, UUID upperBound) {
+            // Queued behind other exports, a range may only start once nobody reads this one anymore
+            if (cancelled) {
+                return;
+            }
+            try {
+                ByteArrayOutputStream chunk = new ByteArrayOutputStream(chunkSize + 256);
+                List<Object> bounds = new ArrayList<>(2);
+                StringBuilder sql = new StringBuilder("SELECT user_id, name, age FROM users");
+                if (lowerBound != null) {
+                    sql.append(" WHERE user_id >= ?");
+                    bounds.add(lowerBound);
+                }
+                if (upperBound != null) {
+                    sql.append(lowerBound != null ? " AND" : " WHERE").append(" user_id < ?");
+                    bounds.add(upperBound);
+                }
+                jdbcTemplate.query(sql.toString(), resultSet -> {
+                    format.writeUser(chunk, resultSet.getObject(1, UUID.class), resultSet.getString(2), resultSet.getInt(3));
+                    if (chunk.size() >= chunkSize) {
+                        handOver(chunk.toByteArray());
+                        chunk.reset();
+                    }
+                }, bounds.toArray());
+                if (chunk.size() > 0) {
+                    handOver(chunk.toByteArray());
+                }
+            } catch (CancellationException exception) {
+                return;
+            } catch (Exception exception) {
+                if (!cancelled) {
+                    logger.error("Scan of the users from {} to {} failed", lowerBound, upperBound, exception);
+                    failure = exception;
+                }
+            }
+            try {
+                handOver(END_OF_RANGE);
+            } catch (CancellationException exception) {
+                // Nobody is reading anymore
+            }
+        }
+
+        /**
+         * Waits for room in the queue, giving up once the response is no longer written, or failing the export once
+         * the client took no chunk for the stall timeout.
+         */
+        private void handOver(byte[] chunk) {
+            long deadline = System.nanoTime() + stallTimeout.toNanos();
+            try {
+                while (!chunks.offer(chunk, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        throw new CancellationException();
+                    }
+                    if (System.nanoTime() - deadline >= 0) {
+                        logger.warn("Export of the users stalled for {}, giving its scanners back", stallTimeout);
+                        failure = new TimeoutException("The client took no chunk of the users for " + stallTimeout);
+                        cancelled = true;
+                        throw new CancellationException();
+                    }
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package edu.jl.springhateoas.importing;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import edu.jl.springhateoas.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats of the user import, told by the {@code Content-Type} of the body. The charset defaults to UTF-8.
+ */
+public enum UserImportFormat {
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    public static final String CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+
+    UserImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static UserImportFormat of(MediaType contentType) {
+        for (UserImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Users cannot be imported from " + contentType + ", only from text/csv or application/x-ndjson!");
+    }
+
+    UserImportRows rowsOf(InputStream body, Charset charset, ObjectReader userReader) throws IOException {
+        InputStreamReader reader = new InputStreamReader(body, charset == null ? StandardCharsets.UTF_8 : charset);
+        return this == CSV ? new UserImportRows.Csv(reader) : new UserImportRows.Ndjson(reader, userReader);
+    }
+}
@@ -0,0 +1,199 @@
+package edu.jl.springhateoas.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the rows of an import one at a time, so only the row being read is held in memory. A row that cannot be
+ * read into a user comes with an error instead, and the reading goes on with the next one.
+ */
+abstract class UserImportRows {
+    private static final int MAX_CSV_FIELD_LENGTH = 64 * 1024;
+
+    record Row(long line, UserRequestDto user, String error) {
+
+        static Row of(long line, UserRequestDto user) {
+            return new Row(line, user, null);
+        }
+
+        static Row failed(long line, String error) {
+            return new Row(line, null, error);
+        }
+    }
+
+    /**
+     * Next row, or {@code null} once the body is read.
+     */
+    abstract Row next() throws IOException;
+
+    /**
+     * RFC 4180 rows under a header line naming the {@code name} and {@code age} columns, in any order. Other
+     * columns, like the {@code id} of an export, are ignored. Quoted fields may span lines.
+     */
+    static final class Csv extends UserImportRows {
+        private final BufferedReader reader;
+        private final int nameColumn;
+        private final int ageColumn;
+        private long line = 1;
+
+        Csv(Reader reader) throws IOException {
+            this.reader = new BufferedReader(reader);
+            List<String> header;
+            try {
+                header = readRecord();
+            } catch (MalformedRowException exception) {
+                header = null;
+            }
+            List<String> columns = header == null
+                    ? List.of()
+                    : header.stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+            this.nameColumn = columns.indexOf("name");
+            this.ageColumn = columns.indexOf("age");
+            if (nameColumn < 0 || ageColumn < 0) {
+                throw new BadRequestException("A CSV import must start with a header naming the name and age columns!");
+            }
+        }
+
+        @Override
+        Row next() throws IOException {
+            while (true) {
+                long start = line;
+                List<String> record;
+                try {
+                    record = readRecord();
+                } catch (MalformedRowException exception) {
+                    return Row.failed(start, exception.getMessage());
+                }
+                if (record == null) {
+                    return null;
+                }
+                if (record.size() == 1 && record.get(0).isEmpty()) {
+                    continue;
+                }
+                String name = field(record, nameColumn);
+                String age = field(record, ageColumn);
+                if (age == null || age.isBlank()) {
+                    return Row.of(start, new UserRequestDto(name, null));
+                }
+                try {
+                    return Row.of(start, new UserRequestDto(name, Integer.parseInt(age.trim())));
+                } catch (NumberFormatException exception) {
+                    return Row.failed(start, "age: must be a whole number");
+                }
+            }
+        }
+
+        private static String field(List<String> record, int column) {
+            return column < record.size() ? record.get(column) : null;
+        }
+
+        /**
+         * Fields of the next record, or {@code null} at the end of the body. A malformed record is read to its end
+         * before failing, so the next one starts on a record boundary.
+         */
+        private List<String> readRecord() throws IOException {
+            int character = reader.read();
+            if (character == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>(4);
+            StringBuilder field = new StringBuilder();
+            String malformation = null;
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (character == -1) {
+                        malformation = "unterminated quoted field";
+                        fields.add(field.toString());
+                        break;
+                    }
+                    if (character == '"') {
+                        int following = reader.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            character = following;
+                            continue;
+                        }
+                    } else {
+                        if (character == '\n') {
+                            line++;
+                        }
+                        field.append((char) character);
+                    }
+                } else if (character == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (character == '\n' || character == -1) {
+                    if (character == '\n') {
+                        line++;
+                    }
+                    fields.add(field.toString());
+                    break;
+                } else if (character == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (character != '\r') {
+                    field.append((char) character);
+                }
+                if (field.length() > MAX_CSV_FIELD_LENGTH) {
+                    malformation = "field longer than " + MAX_CSV_FIELD_LENGTH + " characters";
+                    field.setLength(0);
+                }
+                character = reader.read();
+            }
+            if (malformation != null) {
+                throw new MalformedRowException(malformation);
+            }
+            return fields;
+        }
+    }
+
+    /**
+     * One JSON object per line, with the properties of a user request. Other properties, like the {@code id} of
+     * an export, are ignored, and blank lines are skipped.
+     */
+    static final class Ndjson extends UserImportRows {
+        private final BufferedReader reader;
+        private final ObjectReader userReader;
+        private long line;
+
+        Ndjson(Reader reader, ObjectReader userReader) {
+            this.reader = new BufferedReader(reader);
+            this.userReader = userReader;
+        }
+
+        @Override
+        Row next() throws IOException {
+            String json;
+            do {
+                json = reader.readLine();
+                line++;
+                if (json == null) {
+                    return null;
+                }
+            } while (json.isBlank());
+            try {
+                return Row.of(line, userReader.readValue(json));
+            } catch (JsonProcessingException exception) {
+                return Row.failed(line, "malformed JSON: " + exception.getOriginalMessage());
+            }
+        }
+    }
+
+    private static final class MalformedRowException extends IOException {
+
+        MalformedRowException(String message) {
+            super(message);
+        }
+    }
+}
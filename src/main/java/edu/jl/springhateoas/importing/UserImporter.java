@@ -0,0 +1,324 @@
+package edu.jl.springhateoas.importing;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.jl.springhateoas.dto.user.UserImportErrorDto;
+import edu.jl.springhateoas.dto.user.UserImportProgressDto;
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.entity.UserEntity;
+import edu.jl.springhateoas.event.UserChangeEvent;
+import edu.jl.springhateoas.exception.TooManyRequestsException;
+import edu.jl.springhateoas.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users from a CSV or NDJSON body, without holding it in memory.
+ * <p>
+ * The body is read row by row on the response thread and goes through a pipeline of three stages, each handing
+ * batches of {@code app.import.batch-size} rows to the next through a queue of {@code app.import.queue-batches}:
+ * the rows are parsed, validated with the constraints of {@link UserRequestDto}, and inserted with one statement
+ * per batch, each in a transaction of its own. A batch the database rejects is inserted again row by row, so only
+ * the offending rows fail. A full queue holds back the stage before it, down to the reading of the body.
+ * <p>
+ * The response is NDJSON: a {@link UserImportErrorDto} per row that was not imported and a
+ * {@link UserImportProgressDto} every {@code app.import.progress-interval} rows read, then a last one once every
+ * row went through.
+ * <p>
+ * At most {@code app.import.max-concurrent} imports run at once, each with two threads for its validation and
+ * insertion; the ones beyond are answered 429 Too Many Requests.
+ */
+@Component
+public class UserImporter {
+    private static final Logger logger = LoggerFactory.getLogger(UserImporter.class);
+    private static final long QUEUE_TIMEOUT_MILLIS = 100;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectReader userReader;
+    private final ObjectWriter reportWriter;
+    private final int batchSize;
+    private final int queueBatches;
+    private final long progressInterval;
+    private final Semaphore imports;
+    private final ExecutorService stages;
+
+    @Autowired
+    public UserImporter(
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            Validator validator,
+            ObjectMapper objectMapper,
+            @Value("${app.import.batch-size:500}") int batchSize,
+            @Value("${app.import.queue-batches:4}") int queueBatches,
+            @Value("${app.import.progress-interval:10000}") long progressInterval,
+            @Value("${app.import.max-concurrent:2}") int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("app.import.max-concurrent must be positive, was " + maxConcurrent);
+        }
+        this.userRepository = userRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.userReader = objectMapper.readerFor(UserRequestDto.class);
+        this.reportWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.batchSize = batchSize;
+        this.queueBatches = queueBatches;
+        this.progressInterval = progressInterval;
+        this.imports = new Semaphore(maxConcurrent);
+        // Validation and insertion of every import that may run at once
+        this.stages = Executors.newFixedThreadPool(2 * maxConcurrent,
+                Thread.ofPlatform().name("user-import-", 1).daemon().factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stages.shutdownNow();
+    }
+
+    /**
+     * Starts reading the body, so that a CSV body without a proper header is rejected before the response starts,
+     * like an import beyond the {@code app.import.max-concurrent} already running.
+     */
+    public StreamingResponseBody importUsers(MediaType contentType, InputStream body) throws IOException {
+        UserImportFormat format = UserImportFormat.of(contentType);
+        if (!imports.tryAcquire()) {
+            throw new TooManyRequestsException("Too many imports are running, retry later!");
+        }
+        UserImportRows rows;
+        try {
+            rows = format.rowsOf(body, contentType.getCharset(), userReader);
+        } catch (IOException | RuntimeException exception) {
+            imports.release();
+            throw exception;
+        }
+        return outputStream -> {
+            try {
+                new Import(rows).run(outputStream);
+            } finally {
+                imports.release();
+            }
+        };
+    }
+
+    private record ValidUser(long line, UserEntity user) {
+    }
+
+    private final class Import {
+        private final UserImportRows rows;
+        private final BlockingQueue<List<UserImportRows.Row>> parsedRows = new ArrayBlockingQueue<>(queueBatches);
+        private final BlockingQueue<List<ValidUser>> validUsers = new ArrayBlockingQueue<>(queueBatches);
+        private final List<UserImportRows.Row> endOfRows = new ArrayList<>(0);
+        private final List<ValidUser> endOfUsers = new ArrayList<>(0);
+        // Drained into the response with every progress, so it holds at most the errors of that many rows
+        private final Queue<UserImportErrorDto> errors = new ConcurrentLinkedQueue<>();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private long read;
+        private volatile boolean cancelled;
+
+        Import(UserImportRows rows) {
+            this.rows = rows;
+        }
+
+        void run(OutputStream outputStream) throws IOException {
+            Future<?> validation = stages.submit(this::validate);
+            Future<?> insertion = stages.submit(this::insert);
+            try {
+                List<UserImportRows.Row> batch = new ArrayList<>(batchSize);
+                UserImportRows.Row row;
+                while ((row = rows.next()) != null) {
+                    batch.add(row);
+                    if (batch.size() == batchSize) {
+                        handOver(parsedRows, batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                    if (++read % progressInterval == 0) {
+                        report(outputStream, false);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    handOver(parsedRows, batch);
+                }
+                handOver(parsedRows, endOfRows);
+                validation.get();
+                insertion.get();
+                report(outputStream, true);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+                throw new InterruptedIOException("Import of the users was interrupted");
+            } catch (ExecutionException exception) {
+                cancelled = true;
+                throw new IllegalStateException("Import of the users failed", exception.getCause());
+            } catch (IOException | RuntimeException exception) {
+                cancelled = true;
+                throw exception;
+            }
+        }
+
+        private void report(OutputStream outputStream, boolean done) throws IOException {
+            UserImportErrorDto error;
+            while ((error = errors.poll()) != null) {
+                reportWriter.writeValue(outputStream, error);
+                outputStream.write('\n');
+            }
+            reportWriter.writeValue(outputStream, new UserImportProgressDto(read, imported.get(), failed.get(), done));
+            outputStream.write('\n');
+            outputStream.flush();
+        }
+
+        private void validate() {
+            try {
+                List<UserImportRows.Row> batch;
+                while ((batch = takeFrom(parsedRows)) != endOfRows) {
+                    List<ValidUser> valid = new ArrayList<>(batch.size());
+                    for (UserImportRows.Row row : batch) {
+                        String error = row.error() != null ? row.error() : violationsOf(row.user());
+                        if (error != null) {
+                            fail(row.line(), error);
+                            continue;
+                        }
+                        UserEntity user = new UserEntity(UUID.randomUUID(), row.user().getName(), row.user().getAge());
+                        user.setVersion(0L);
+                        valid.add(new ValidUser(row.line(), user));
+                    }
+                    if (!valid.isEmpty()) {
+                        handOver(validUsers, valid);
+                    }
+                }
+                handOver(validUsers, endOfUsers);
+            } catch (CancellationException exception) {
+                cancelled = true;
+            } catch (RuntimeException exception) {
+                logger.error("Import of the users failed", exception);
+                cancelled = true;
+                throw exception;
+            }
+        }
+
+        private void insert() {
+            try {
+                List<ValidUser> batch;
+                while ((batch = takeFrom(validUsers)) != endOfUsers) {
+                    try {
+                        save(batch);
+                    } catch (RuntimeException exception) {
+                        logger.debug("Batch of {} imported users rejected, inserting them one by one", batch.size(), exception);
+                        for (ValidUser validUser : batch) {
+                            try {
+                                save(List.of(validUser));
+                            } catch (RuntimeException rowException) {
+                                fail(validUser.line(), NestedExceptionUtils.getMostSpecificCause(rowException).getMessage());
+                            }
+                        }
+                    }
+                }
+            } catch (CancellationException exception) {
+                cancelled = true;
+            } catch (RuntimeException exception) {
+                logger.error("Import of the users failed", exception);
+                cancelled = true;
+                throw exception;
+            }
+        }
+
+        private void save(List<ValidUser> batch) {
+            List<UserEntity> users = batch.stream().map(ValidUser::user).toList();
+            transaction.executeWithoutResult(status -> {
+                userRepository.insertAll(users);
+                users.forEach(user -> eventPublisher.publishEvent(UserChangeEvent.saved(user)));
+            });
+            imported.addAndGet(users.size());
+        }
+
+        private void fail(long line, String message) {
+            errors.add(new UserImportErrorDto(line, message));
+            failed.incrementAndGet();
+        }
+
+        private String violationsOf(UserRequestDto user) {
+            if (user == null) {
+                return "row: must not be null";
+            }
+            Set<ConstraintViolation<UserRequestDto>> violations = validator.validate(user);
+            if (violations.isEmpty()) {
+                return null;
+            }
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+
+        /**
+         * Waits for room in the queue, giving up once a stage failed or the response is no longer written.
+         */
+        private <T> void handOver(BlockingQueue<T> queue, T batch) {
+            try {
+                while (!queue.offer(batch, QUEUE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        throw new CancellationException("Import of the users was cancelled");
+                    }
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Import of the users was interrupted");
+            }
+        }
+
+        private <T> T takeFrom(BlockingQueue<T> queue) {
+            try {
+                T batch;
+                while ((batch = queue.poll(QUEUE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                    if (cancelled) {
+                        throw new CancellationException("Import of the users was cancelled");
+                    }
+                }
+                return batch;
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Import of the users was interrupted");
+            }
+        }
+    }
+}
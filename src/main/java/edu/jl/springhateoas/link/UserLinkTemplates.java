@@ -0,0 +1,195 @@
+package edu.jl.springhateoas.link;
+
+import edu.jl.springhateoas.controller.UserController;
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.pagination.UserCursor;
+import org.springframework.data.domain.Page;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Builds the HATEOAS links of the user resources.
+ * <p>
+ * The {@link UserController} mappings are resolved once, when the bean is created, into path templates.
+ * Building the links of a user then only concatenates the base URI of the current request, the template
+ * and the user id, instead of proxying the controller through {@code linkTo(methodOn(...))} for every link.
+ */
+@Component
+public class UserLinkTemplates {
+    public static final List<String> RELS = List.of("self", "create", "delete", "update");
+    private static final Set<String> ALL_RELS = Set.copyOf(RELS);
+    private static final String ID_VARIABLE = "{id}";
+    private static final Pattern OPTIONAL_PARAMETERS = Pattern.compile("\\{[?&][^}]*}");
+    private static final LinkRelation CREATE = LinkRelation.of("create");
+    private static final LinkRelation DELETE = LinkRelation.of("delete");
+    private static final LinkRelation UPDATE = LinkRelation.of("update");
+
+    private final PathTemplate selfTemplate;
+    private final PathTemplate createTemplate;
+    private final PathTemplate deleteTemplate;
+    private final PathTemplate updateTemplate;
+    private final PathTemplate collectionTemplate;
+
+    public UserLinkTemplates() {
+        // Resolved outside of a request, so the hrefs are the paths relative to the servlet mapping
+        this.selfTemplate = PathTemplate.of(linkTo(methodOn(UserController.class).findById(null, true, null, null, null, null, null)).withSelfRel().getHref());
+        this.createTemplate = PathTemplate.of(linkTo(methodOn(UserController.class).save(null, true)).withSelfRel().getHref());
+        this.deleteTemplate = PathTemplate.of(linkTo(methodOn(UserController.class).delete(null)).withSelfRel().getHref());
+        this.updateTemplate = PathTemplate.of(linkTo(methodOn(UserController.class).update(null, null, true, null, null)).withSelfRel().getHref());
+        this.collectionTemplate = PathTemplate.of(linkTo(methodOn(UserController.class).findAll(true, null, null)).withSelfRel().getHref());
+    }
+
+    /**
+     * Returns a function adding the {@code self}, {@code create}, {@code delete} and {@code update} links to a
+     * user, bound to the base URI of the current request so it is resolved only once for a whole collection.
+     */
+    public Function<UserResponseDto, UserResponseDto> forCurrentRequest() {
+        return forCurrentRequest(ALL_RELS);
+    }
+
+    /**
+     * Like {@link #forCurrentRequest()}, but only builds the links of the given relations.
+     */
+    public Function<UserResponseDto, UserResponseDto> forCurrentRequest(Set<String> rels) {
+        String baseUri = currentBaseUri();
+        String createHref = rels.contains("create") ? createTemplate.expand(baseUri, null) : null;
+        return userResponseDto -> applyLinks(userResponseDto, baseUri, createHref, rels);
+    }
+
+    public UserResponseDto applyLinks(UserResponseDto userResponseDto) {
+        return forCurrentRequest().apply(userResponseDto);
+    }
+
+    public Link collectionSelfLink() {
+        return Link.of(collectionTemplate.expand(currentBaseUri(), null), IanaLinkRelations.SELF);
+    }
+
+    public PagedModel<UserResponseDto> applyPageLinks(Page<UserResponseDto> page) {
+        int size = page.getSize(), number = page.getNumber();
+        long totalElements = page.getTotalElements();
+        List<Link> links = new ArrayList<>();
+        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        UriComponents currentUri = uriBuilder.build();
+        String name = currentUri.getQueryParams().getFirst("name");
+        String sort = currentUri.getQueryParams().getFirst("sort");
+
+        Function<Integer, String> buildOrderedUri = (pageNumber) -> uriBuilder.cloneBuilder()
+                .replaceQueryParam("name", name)
+                .replaceQueryParam("size", size)
+                .replaceQueryParam("page", pageNumber)
+                .replaceQueryParam("sort", sort)
+                .replaceQueryParam("hateoas", "true")
+                .toUriString();
+
+        // self
+        links.add(Link.of(buildOrderedUri.apply(number)).withSelfRel());
+
+        // first
+        links.add(Link.of(buildOrderedUri.apply(0)).withRel("first"));
+
+        // last
+        int lastPage = (int) Math.ceil((double) totalElements / size) - 1;
+        lastPage = Math.max(lastPage, 0);
+        links.add(Link.of(buildOrderedUri.apply(lastPage)).withRel("last"));
+
+        // next
+        if (number < lastPage) {
+            links.add(Link.of(buildOrderedUri.apply(number + 1)).withRel("next"));
+        }
+
+        // prev
+        if (number > 0) {
+            links.add(Link.of(buildOrderedUri.apply(number - 1)).withRel("prev"));
+        }
+
+        return PagedModel.of(
+                page.getContent(),
+                new PagedModel.PageMetadata(size, number, totalElements, lastPage + 1),
+                links
+        );
+    }
+
+    /**
+     * Wraps a keyset slice with its {@code self} link and, when present, the {@code next} and {@code prev}
+     * links carrying the cursors of the neighbouring slices.
+     */
+    public CollectionModel<UserResponseDto> applySliceLinks(List<UserResponseDto> users, UserCursor next, UserCursor previous) {
+        List<Link> links = new ArrayList<>(3);
+        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        links.add(Link.of(uriBuilder.toUriString()).withSelfRel());
+        if (next != null) {
+            links.add(Link.of(uriBuilder.cloneBuilder()
+                    .replaceQueryParam("before")
+                    .replaceQueryParam("after", next.encode())
+                    .toUriString()).withRel(IanaLinkRelations.NEXT));
+        }
+        if (previous != null) {
+            links.add(Link.of(uriBuilder.cloneBuilder()
+                    .replaceQueryParam("after")
+                    .replaceQueryParam("before", previous.encode())
+                    .toUriString()).withRel(IanaLinkRelations.PREV));
+        }
+        return CollectionModel.of(users, links);
+    }
+
+    private UserResponseDto applyLinks(UserResponseDto userResponseDto, String baseUri, String createHref, Set<String> rels) {
+        UUID id = userResponseDto.getId();
+        if (rels.contains("self")) {
+            userResponseDto.add(Link.of(selfTemplate.expand(baseUri, id), IanaLinkRelations.SELF));
+        }
+        if (createHref != null) {
+            userResponseDto.add(Link.of(createHref, CREATE));
+        }
+        if (rels.contains("delete")) {
+            userResponseDto.add(Link.of(deleteTemplate.expand(baseUri, id), DELETE));
+        }
+        if (rels.contains("update")) {
+            userResponseDto.add(Link.of(updateTemplate.expand(baseUri, id), UPDATE));
+        }
+        return userResponseDto;
+    }
+
+    private static String currentBaseUri() {
+        return ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString();
+    }
+
+    /**
+     * A controller mapping split around its {@code {id}} variable, relative to the servlet mapping.
+     */
+    private record PathTemplate(String prefix, String suffix) {
+
+        static PathTemplate of(String href) {
+            // Optional request parameters left unset come out as {?...} or {&...} template variables
+            String path = OPTIONAL_PARAMETERS.matcher(href).replaceAll("");
+            int variableIndex = path.indexOf(ID_VARIABLE);
+            if (variableIndex < 0) {
+                return new PathTemplate(path, "");
+            }
+            return new PathTemplate(path.substring(0, variableIndex), path.substring(variableIndex + ID_VARIABLE.length()));
+        }
+
+        String expand(String baseUri, UUID id) {
+            if (id == null) {
+                return baseUri + prefix + suffix;
+            }
+            return baseUri + prefix + id + suffix;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package edu.jl.springhateoas.mapper.implementation;
+
+import edu.jl.springhateoas.dto.user.UserBatchUpdateRequestDto;
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.entity.UserEntity;
+import edu.jl.springhateoas.mapper.Mapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link Mapper} copying the user fields through their accessors, without the reflective type map lookup and
+ * property matching of {@link ModelMapper}. Only the user conversions are supported.
+ * <p>
+ * Selected with {@code app.mapper=direct}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.mapper", havingValue = "direct")
+public class DirectMapper implements Mapper {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <O, D> D convertObject(O source, Class<D> destination) {
+        if (destination == UserResponseDto.class && source instanceof UserEntity userEntity) {
+            UserResponseDto userResponseDto = new UserResponseDto(userEntity.getId(), userEntity.getName(), userEntity.getAge());
+            userResponseDto.setVersion(userEntity.getVersion());
+            return (D) userResponseDto;
+        }
+        if (destination == UserEntity.class && source instanceof UserRequestDto userRequestDto) {
+            return (D) new UserEntity(null, userRequestDto.getName(), userRequestDto.getAge());
+        }
+        if (destination == UserEntity.class && source instanceof UserEntity userEntity) {
+            UserEntity copy = new UserEntity(userEntity.getId(), userEntity.getName(), userEntity.getAge());
+            copy.setVersion(userEntity.getVersion());
+            return (D) copy;
+        }
+        if (destination == UserRequestDto.class && source instanceof UserEntity userEntity) {
+            return (D) new UserRequestDto(userEntity.getName(), userEntity.getAge());
+        }
+        throw unsupportedMapping(source, destination);
+    }
+
+    @Override
+    public <O, D> List<D> convertList(List<O> sourceList, Class<D> destination) {
+        List<D> destinationList = new ArrayList<>(sourceList.size());
+        for (O source : sourceList) {
+            destinationList.add(convertObject(source, destination));
+        }
+        return Collections.unmodifiableList(destinationList);
+    }
+
+    @Override
+    public <O, D> void copyProperties(O source, D destination) {
+        if (destination instanceof UserEntity userEntity && source instanceof UserRequestDto userRequestDto) {
+            userEntity.setName(userRequestDto.getName());
+            userEntity.setAge(userRequestDto.getAge());
+            return;
+        }
+        if (destination instanceof UserEntity userEntity && source instanceof UserBatchUpdateRequestDto userUpdate) {
+            userEntity.setName(userUpdate.getName());
+            userEntity.setAge(userUpdate.getAge());
+            return;
+        }
+        if (destination instanceof UserEntity userEntity && source instanceof UserEntity sourceEntity) {
+            userEntity.setId(sourceEntity.getId());
+            userEntity.setName(sourceEntity.getName());
+            userEntity.setAge(sourceEntity.getAge());
+            userEntity.setVersion(sourceEntity.getVersion());
+            return;
+        }
+        throw unsupportedMapping(source, destination.getClass());
+    }
+
+    private static IllegalArgumentException unsupportedMapping(Object source, Class<?> destination) {
+        return new IllegalArgumentException("No mapping from " + source.getClass().getName() + " to " + destination.getName() + "!");
+    }
+}
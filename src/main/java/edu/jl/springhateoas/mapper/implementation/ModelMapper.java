@@ -1,11 +1,13 @@
 package edu.jl.springhateoas.mapper.implementation;
 
 import edu.jl.springhateoas.mapper.Mapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
 @Component
+@ConditionalOnProperty(name = "app.mapper", havingValue = "model-mapper", matchIfMissing = true)
 public class ModelMapper implements Mapper {
     private final org.modelmapper.ModelMapper mapper = new org.modelmapper.ModelMapper();
 
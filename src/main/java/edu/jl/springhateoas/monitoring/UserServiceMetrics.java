@@ -0,0 +1,44 @@
+package edu.jl.springhateoas.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Timers of the stages of the user service: the repository call, the entity to DTO mapping and the link
+ * building. They are recorded in {@value #STAGE_TIMER}, tagged by {@code endpoint} (the controller operation),
+ * {@code stage} and {@code hateoas}; their count is the number of times a stage ran, once per call for the
+ * mapping and links of a whole collection (the page links of {@code /paged} being a second links sample).
+ * <p>
+ * Percentile histograms and SLO buckets are configured with the {@code management.metrics.distribution.*}
+ * properties, like those of {@code http.server.requests}.
+ */
+@Component
+public class UserServiceMetrics {
+    public static final String STAGE_TIMER = "user.service.stage";
+
+    public enum Stage {
+        REPOSITORY, MAPPER, LINKS;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    public UserServiceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Timer of a stage of an endpoint. Look it up once per request rather than once per user.
+     */
+    public Timer timer(String endpoint, Stage stage, boolean hateoasEnabled) {
+        return Timer.builder(STAGE_TIMER)
+                .description("Time spent in a stage of the user service")
+                .tags(Tags.of("endpoint", endpoint, "stage", stage.tag, "hateoas", String.valueOf(hateoasEnabled)))
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package edu.jl.springhateoas.pagination;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.hateoas.PagedModel;
+
+/**
+ * Metadata of a page whose {@code totalElements} (and so {@code totalPages}) is an estimate rather than a count,
+ * told by {@code "estimated": true} next to them.
+ */
+public class EstimatedPageMetadata extends PagedModel.PageMetadata {
+
+    public EstimatedPageMetadata(PagedModel.PageMetadata metadata) {
+        super(metadata.getSize(), metadata.getNumber(), metadata.getTotalElements(), metadata.getTotalPages());
+    }
+
+    @JsonProperty("estimated")
+    public boolean isEstimated() {
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package edu.jl.springhateoas.pagination;
+
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.exception.BadRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Position of a keyset (seek) page over users ordered by {@code (name, id)}.
+ * <p>
+ * Clients only see the opaque token: the base64url encoding of {@code <id>:<name>} of the boundary user.
+ */
+public record UserCursor(String name, UUID id, ScrollPosition.Direction direction) {
+    private static final char SEPARATOR = ':';
+
+    public static UserCursor first() {
+        return new UserCursor(null, null, ScrollPosition.Direction.FORWARD);
+    }
+
+    public static UserCursor after(String token) {
+        return decode(token, ScrollPosition.Direction.FORWARD);
+    }
+
+    public static UserCursor before(String token) {
+        return decode(token, ScrollPosition.Direction.BACKWARD);
+    }
+
+    public static UserCursor after(UserResponseDto user) {
+        return new UserCursor(user.getName(), user.getId(), ScrollPosition.Direction.FORWARD);
+    }
+
+    public static UserCursor before(UserResponseDto user) {
+        return new UserCursor(user.getName(), user.getId(), ScrollPosition.Direction.BACKWARD);
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public boolean isBackward() {
+        return direction == ScrollPosition.Direction.BACKWARD;
+    }
+
+    public KeysetScrollPosition toScrollPosition() {
+        if (isFirst()) {
+            return ScrollPosition.keyset();
+        }
+        return ScrollPosition.of(Map.of("name", name, "id", id), direction);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((id.toString() + SEPARATOR + name).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static UserCursor decode(String token, ScrollPosition.Direction direction) {
+        if (token == null || token.isEmpty()) {
+            return first();
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            return new UserCursor(
+                    decoded.substring(separatorIndex + 1),
+                    UUID.fromString(decoded.substring(0, separatorIndex)),
+                    direction);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException exception) {
+            throw new BadRequestException("Cursor " + token + " is not valid!");
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package edu.jl.springhateoas.preference;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.mvc.condition.AbstractRequestCondition;
+
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Set;
+
+/**
+ * Matches the requests whose {@code Prefer} headers list a preference, whatever its value and parameters and
+ * whatever other preferences come with it: {@code respond-async} matches {@code Prefer: return=minimal,
+ * respond-async, wait=5}. Preference names are case-insensitive. A mapping with this condition is more specific
+ * than the same mapping without it.
+ */
+public final class PreferenceRequestCondition extends AbstractRequestCondition<PreferenceRequestCondition> {
+    public static final String PREFER = "Prefer";
+
+    private final String preference;
+
+    public PreferenceRequestCondition(String preference) {
+        this.preference = preference;
+    }
+
+    @Override
+    protected Collection<String> getContent() {
+        return Set.of(PREFER + "~" + preference);
+    }
+
+    @Override
+    protected String getToStringInfix() {
+        return " && ";
+    }
+
+    @Override
+    public PreferenceRequestCondition combine(PreferenceRequestCondition other) {
+        return other;
+    }
+
+    @Override
+    public PreferenceRequestCondition getMatchingCondition(HttpServletRequest request) {
+        if (CorsUtils.isPreFlightRequest(request)) {
+            return this;
+        }
+        Enumeration<String> headers = request.getHeaders(PREFER);
+        while (headers.hasMoreElements()) {
+            for (String token : headers.nextElement().split(",")) {
+                if (nameOf(token).equalsIgnoreCase(preference)) {
+                    return this;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int compareTo(PreferenceRequestCondition other, HttpServletRequest request) {
+        return 0;
+    }
+
+    /**
+     * Name of a preference: what precedes its value ({@code =}) and parameters ({@code ;}).
+     */
+    private static String nameOf(String token) {
+        int end = token.length();
+        for (int index = 0; index < token.length(); index++) {
+            char character = token.charAt(index);
+            if (character == '=' || character == ';') {
+                end = index;
+                break;
+            }
+        }
+        return token.substring(0, end).trim();
+    }
+}
@@ -0,0 +1,24 @@
+package edu.jl.springhateoas.preference;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Narrows a handler method to the requests whose {@code Prefer} header (RFC 7240) lists the given preference,
+ * among any others. A request without it goes to the handler of the same mapping without the annotation.
+ *
+ * @see PreferenceRequestCondition
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Preferred {
+
+    /**
+     * Name of the preference, e.g. {@code respond-async}.
+     */
+    String value();
+}
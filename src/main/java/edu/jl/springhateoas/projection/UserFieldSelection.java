@@ -0,0 +1,88 @@
+package edu.jl.springhateoas.projection;
+
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.exception.BadRequestException;
+import edu.jl.springhateoas.link.UserLinkTemplates;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The user properties ({@code fields}) and link relations ({@code rels}) a client asked for, as comma-separated
+ * lists. A missing or blank list selects everything.
+ */
+public record UserFieldSelection(Set<String> fields, Set<String> rels) {
+    public static final List<String> FIELDS = List.of("id", "name", "age");
+    public static final List<String> RELS = UserLinkTemplates.RELS;
+    public static final UserFieldSelection ALL = new UserFieldSelection(Set.copyOf(FIELDS), Set.copyOf(RELS));
+
+    public static UserFieldSelection of(String fields, String rels) {
+        if ((fields == null || fields.isBlank()) && (rels == null || rels.isBlank())) {
+            return ALL;
+        }
+        return new UserFieldSelection(parse("fields", fields, FIELDS), parse("rels", rels, RELS));
+    }
+
+    public boolean allFields() {
+        return fields.size() == FIELDS.size();
+    }
+
+    /**
+     * Columns to fetch to build the selected fields and links: the id is needed by every link but
+     * {@code create}.
+     */
+    public Set<String> columns(boolean hateoasEnabled) {
+        Set<String> columns = new LinkedHashSet<>(fields);
+        if (hateoasEnabled && rels.stream().anyMatch(rel -> !rel.equals("create"))) {
+            columns.add("id");
+        }
+        return columns;
+    }
+
+    /**
+     * Clears the fields that were not selected, once the links are built, so they are not serialized.
+     */
+    public UserResponseDto trim(UserResponseDto userResponse) {
+        if (!fields.contains("id")) {
+            userResponse.setId(null);
+        }
+        if (!fields.contains("name")) {
+            userResponse.setName(null);
+        }
+        if (!fields.contains("age")) {
+            userResponse.setAge(null);
+        }
+        return userResponse;
+    }
+
+    /**
+     * Tells apart the entity tags of the representations of a user that differ by their selection.
+     */
+    public String eTagSuffix() {
+        if (this.equals(ALL)) {
+            return "";
+        }
+        return "-" + FIELDS.stream().filter(fields::contains).collect(Collectors.joining("."))
+                + "-" + RELS.stream().filter(rels::contains).collect(Collectors.joining("."));
+    }
+
+    private static Set<String> parse(String parameter, String list, List<String> allowed) {
+        if (list == null || list.isBlank()) {
+            return Set.copyOf(allowed);
+        }
+        Set<String> selected = Arrays.stream(list.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toSet());
+        if (selected.isEmpty()) {
+            return Set.copyOf(allowed);
+        }
+        if (!allowed.containsAll(selected)) {
+            throw new BadRequestException("Parameter " + parameter + " must only list " + String.join(", ", allowed) + "!");
+        }
+        return Set.copyOf(selected);
+    }
+}
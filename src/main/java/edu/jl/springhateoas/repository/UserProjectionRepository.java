@@ -0,0 +1,42 @@
+package edu.jl.springhateoas.repository;
+
+import edu.jl.springhateoas.entity.UserEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * With the Hibernate query cache enabled ({@code app.hibernate.second-level-cache}), the pages (not unpaged
+ * results) are cached in the {@value #SEARCHES_CACHE_REGION} region until a write to the users table.
+ */
+public interface UserProjectionRepository {
+    String SEARCHES_CACHE_REGION = "userSearches";
+
+    /**
+     * Like {@code findAll(Specification, Pageable)} but only selects the given columns (entity property names).
+     * The returned users are not managed and only have the selected properties set.
+     */
+    Page<UserEntity> findAll(Specification<UserEntity> specification, Set<String> columns, Pageable pageable);
+
+    /**
+     * Like {@link #findAll(Specification, Set, Pageable)} but takes the total from {@code totalCount} instead of a
+     * count query. It is only asked for when the page does not tell it.
+     */
+    Page<UserEntity> findAll(Specification<UserEntity> specification, Set<String> columns, Pageable pageable, LongSupplier totalCount);
+
+    /**
+     * Like {@code findAll(Specification, Pageable)} but takes the total from {@code totalCount} instead of a count
+     * query. It is only asked for when the page does not tell it.
+     */
+    Page<UserEntity> findAll(Specification<UserEntity> specification, Pageable pageable, LongSupplier totalCount);
+
+    /**
+     * Inserts new users with their ids already assigned, in a single multi-row statement. Hibernate is told the
+     * statement writes the users table, so it invalidates its caches of users as for its own writes.
+     */
+    void insertAll(List<UserEntity> users);
+}
@@ -0,0 +1,131 @@
+package edu.jl.springhateoas.repository;
+
+import edu.jl.springhateoas.entity.UserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+public class UserProjectionRepositoryImpl implements UserProjectionRepository {
+    private static final List<String> COLUMNS = List.of("id", "name", "age", "version");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<UserEntity> findAll(Specification<UserEntity> specification, Set<String> columns, Pageable pageable) {
+        return findAll(specification, columns, pageable, () -> count(specification));
+    }
+
+    @Override
+    public Page<UserEntity> findAll(Specification<UserEntity> specification, Set<String> columns, Pageable pageable, LongSupplier totalCount) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<UserEntity> root = query.from(UserEntity.class);
+        List<Selection<?>> selections = COLUMNS.stream()
+                .filter(columns::contains)
+                .<Selection<?>>map(column -> root.get(column).alias(column))
+                .toList();
+        query.multiselect(selections);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        page(typedQuery, pageable);
+        List<UserEntity> users = typedQuery.getResultList().stream()
+                .map(tuple -> toUser(tuple, columns))
+                .toList();
+        return PageableExecutionUtils.getPage(users, pageable, totalCount);
+    }
+
+    @Override
+    public Page<UserEntity> findAll(Specification<UserEntity> specification, Pageable pageable, LongSupplier totalCount) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserEntity> query = criteriaBuilder.createQuery(UserEntity.class);
+        Root<UserEntity> root = query.from(UserEntity.class);
+        query.select(root);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        TypedQuery<UserEntity> typedQuery = entityManager.createQuery(query);
+        page(typedQuery, pageable);
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, totalCount);
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<UserEntity> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Query query = entityManager.createNativeQuery("insert into users (user_id, name, age, version) values "
+                + String.join(", ", Collections.nCopies(users.size(), "(?, ?, ?, ?)")));
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(UserEntity.class);
+        int position = 1;
+        for (UserEntity user : users) {
+            query.setParameter(position++, user.getId());
+            query.setParameter(position++, user.getName());
+            query.setParameter(position++, user.getAge());
+            query.setParameter(position++, user.getVersion());
+        }
+        query.executeUpdate();
+    }
+
+    private static void page(TypedQuery<?> typedQuery, Pageable pageable) {
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+            typedQuery.setHint(HibernateHints.HINT_CACHEABLE, true);
+            typedQuery.setHint(HibernateHints.HINT_CACHE_REGION, SEARCHES_CACHE_REGION);
+        }
+    }
+
+    private long count(Specification<UserEntity> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<UserEntity> root = query.from(UserEntity.class);
+        query.select(criteriaBuilder.count(root));
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static UserEntity toUser(Tuple tuple, Set<String> columns) {
+        UserEntity user = new UserEntity(
+                columns.contains("id") ? tuple.get("id", UUID.class) : null,
+                columns.contains("name") ? tuple.get("name", String.class) : null,
+                columns.contains("age") ? tuple.get("age", Integer.class) : null);
+        if (columns.contains("version")) {
+            user.setVersion(tuple.get("version", Long.class));
+        }
+        return user;
+    }
+}
@@ -1,12 +1,105 @@
 package edu.jl.springhateoas.repository;
 
 import edu.jl.springhateoas.entity.UserEntity;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<UserEntity, UUID> {
-    Page<UserEntity> findByNameContainingIgnoreCase(String name, Pageable pageable);
+/**
+ * The single-user operations go through the {@value #USERS_CACHE} cache: reads are cached, saves refresh the
+ * cached user and deletes evict it, once the transaction they run in commits (see {@code CacheConfiguration}).
+ */
+public interface UserRepository extends JpaRepository<UserEntity, UUID>, JpaSpecificationExecutor<UserEntity>, UserProjectionRepository {
+    String USERS_CACHE = "users";
+    String STREAM_FETCH_SIZE = "500";
+
+    @Override
+    @Cacheable(cacheNames = USERS_CACHE, unless = "#result == null")
+    Optional<UserEntity> findById(UUID id);
+
+    @Override
+    @CachePut(cacheNames = USERS_CACHE, key = "#result.id")
+    <S extends UserEntity> S save(S entity);
+
+    @Override
+    @CachePut(cacheNames = USERS_CACHE, key = "#result.id")
+    <S extends UserEntity> S saveAndFlush(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#entity.id")
+    void delete(UserEntity entity);
+
+    @Override
+    @CacheEvict(cacheNames = USERS_CACHE)
+    void deleteById(UUID id);
+
+    @Override
+    @CacheEvict(cacheNames = USERS_CACHE, allEntries = true)
+    <S extends UserEntity> List<S> saveAllAndFlush(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = USERS_CACHE, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<UUID> ids);
+
+    /**
+     * Updates a user with a single statement, without loading it first, returning its new version and the age it
+     * had before, or nothing if there is no user with the given id at the expected version. A {@code null}
+     * expected version matches any. H2's {@code OLD TABLE} reads the row as it was before the update back in the
+     * same round trip.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#id")
+    @Query(nativeQuery = true, value = """
+            select version + 1 as "version", age as "previousAge" from old table (
+                update users set name = :name, age = :age, version = version + 1
+                where user_id = :id and version = coalesce(:expectedVersion, version))""")
+    Optional<UserUpdate> updateById(UUID id, String name, Integer age, Long expectedVersion);
+
+    /**
+     * Deletes a user with a single statement, without loading it first, returning the age it had, or nothing if
+     * there is no user with the given id. Like {@link #updateById}, it is a native select ({@code OLD TABLE}).
+     */
+    @Transactional
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#id")
+    @Query(nativeQuery = true, value = "select age from old table (delete from users where user_id = :id)")
+    Optional<Integer> deleteUserById(UUID id);
+
+    @Query("select u.id as id, u.age as age from UserEntity u where u.id in :ids")
+    List<UserAge> findAgesByIds(Collection<UUID> ids);
+
+    /**
+     * Streams every user, fetching {@value #STREAM_FETCH_SIZE} rows per round trip. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    @Query("select u from UserEntity u")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserEntity> streamAll();
+
+    interface UserUpdate {
+        Long getVersion();
+
+        Integer getPreviousAge();
+    }
+
+    interface UserAge {
+        UUID getId();
+
+        Integer getAge();
+    }
 }
@@ -0,0 +1,33 @@
+package edu.jl.springhateoas.repository;
+
+import edu.jl.springhateoas.entity.UserEntity;
+import edu.jl.springhateoas.event.UserChangeEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hibernate keeps its second-level and query caches up to date on its own writes, including the bulk deletes,
+ * but {@link UserRepository#updateById} and {@link UserRepository#deleteUserById} are native selects
+ * ({@code OLD TABLE}) that Hibernate does not know to write. Once such a write is committed, the user and the
+ * cached searches are evicted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.hibernate.second-level-cache", havingValue = "true")
+public class UserSecondLevelCacheEvictor {
+    private final Cache cache;
+
+    public UserSecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChangeEvent event) {
+        if (event.type() != UserChangeEvent.Type.SAVED) {
+            cache.evictEntityData(UserEntity.class, event.id());
+            cache.evictQueryRegion(UserProjectionRepository.SEARCHES_CACHE_REGION);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package edu.jl.springhateoas.repository.specification;
+
+import edu.jl.springhateoas.entity.UserEntity;
+import edu.jl.springhateoas.entity.UserNameTrigramEntity;
+import edu.jl.springhateoas.search.Trigrams;
+import edu.jl.springhateoas.search.UserSearch;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Set;
+import java.util.UUID;
+
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    /**
+     * Users matching every filter of the search.
+     */
+    public static Specification<UserEntity> matching(UserSearch search) {
+        return nameContainsIgnoreCase(search.name()).and(ageBetween(search.minAge(), search.maxAge()));
+    }
+
+    /**
+     * Users whose age is within the inclusive range, where a {@code null} bound does not filter. The range is
+     * served by the {@code (age, name, user_id)} index.
+     */
+    public static Specification<UserEntity> ageBetween(Integer minAge, Integer maxAge) {
+        return (root, query, criteriaBuilder) -> {
+            if (minAge != null && maxAge != null) {
+                return criteriaBuilder.between(root.get("age"), minAge, maxAge);
+            }
+            if (minAge != null) {
+                return criteriaBuilder.greaterThanOrEqualTo(root.get("age"), minAge);
+            }
+            if (maxAge != null) {
+                return criteriaBuilder.lessThanOrEqualTo(root.get("age"), maxAge);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Users whose name contains the term, ignoring case, like {@code findByNameContainingIgnoreCase}. For terms of
+     * at least three characters, candidates are first narrowed down through the trigram index to the users
+     * having every trigram of the term, so neither the page nor its count scans the users table. Shorter terms
+     * fall back to the plain {@code LIKE}; an empty term matches every user.
+     */
+    public static Specification<UserEntity> nameContainsIgnoreCase(String term) {
+        return (root, query, criteriaBuilder) -> {
+            if (term == null || term.isEmpty()) {
+                return null;
+            }
+            Predicate nameMatches = criteriaBuilder.like(
+                    criteriaBuilder.upper(root.get("name")), Trigrams.containsPattern(term), Trigrams.LIKE_ESCAPE);
+            Set<String> trigrams = Trigrams.of(term);
+            if (trigrams.isEmpty()) {
+                return nameMatches;
+            }
+            Subquery<UUID> candidates = query.subquery(UUID.class);
+            Root<UserNameTrigramEntity> trigram = candidates.from(UserNameTrigramEntity.class);
+            candidates.select(trigram.get("userId"))
+                    .where(trigram.get("trigram").in(trigrams))
+                    .groupBy(trigram.get("userId"))
+                    .having(criteriaBuilder.equal(criteriaBuilder.count(trigram), (long) trigrams.size()));
+            return criteriaBuilder.and(root.get("id").in(candidates), nameMatches);
+        };
+    }
+}
@@ -0,0 +1,336 @@
+package edu.jl.springhateoas.search;
+
+import edu.jl.springhateoas.entity.UserEntity;
+import edu.jl.springhateoas.event.UserChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-process trigram index over user names, answering the paged name search without going to the database.
+ * <p>
+ * It is built from the users table once the application is ready and then follows the {@link UserChangeEvent}s
+ * of the service. Every {@code app.search.in-memory.verify-interval} its user count and version sum are checked
+ * against the database, and a drift (e.g. rows written around the service) triggers a rebuild. Until the first
+ * build completes, and for sorts other than by name and age, searches are left to the database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.index", havingValue = "in-memory")
+public class InMemoryUserNameIndex {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryUserNameIndex.class);
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("name", "age");
+    private static final Comparator<IndexedUser> BY_ID = (first, second) -> {
+        int comparison = Long.compareUnsigned(first.id().getMostSignificantBits(), second.id().getMostSignificantBits());
+        return comparison != 0
+                ? comparison
+                : Long.compareUnsigned(first.id().getLeastSignificantBits(), second.id().getLeastSignificantBits());
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Documents documents = new Documents();
+    private boolean ready;
+    // Changes committed while a rebuild scans the table, replayed onto the rebuilt documents
+    private List<UserChangeEvent> changesDuringRebuild;
+
+    @Autowired
+    public InMemoryUserNameIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long start = System.nanoTime();
+        Documents rebuilt = new Documents();
+        jdbcTemplate.query("SELECT user_id, name, age, version FROM users", resultSet -> {
+            rebuilt.put(new IndexedUser(resultSet.getObject(1, UUID.class), resultSet.getString(2),
+                    resultSet.getInt(3), resultSet.getLong(4)));
+        });
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(rebuilt::apply);
+            changesDuringRebuild = null;
+            documents = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed the names of {} users in {} ms", rebuilt.count(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+            documents.apply(event);
+            if (documents.needsCompaction()) {
+                documents = documents.compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.search.in-memory.verify-interval:PT5M}",
+            fixedDelayString = "${app.search.in-memory.verify-interval:PT5M}")
+    public void verify() {
+        long[] database = jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(version), 0) FROM users",
+                (resultSet, rowNumber) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)});
+        long count, versionSum;
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            count = documents.count();
+            versionSum = documents.versionSum;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (database == null || database[0] != count || database[1] != versionSum) {
+            logger.warn("User name index drifted from the database ({} users indexed), rebuilding it", count);
+            rebuild();
+        }
+    }
+
+    /**
+     * Page of the users matching the search, like the database search, or empty if the index cannot answer it.
+     * The age range is checked on the users matching the name.
+     */
+    public Optional<Page<UserEntity>> search(UserSearch search, Pageable pageable) {
+        Comparator<IndexedUser> comparator = comparatorOf(pageable.getSort());
+        if (comparator == null) {
+            return Optional.empty();
+        }
+        List<IndexedUser> matches;
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            matches = documents.matching(search.name());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (search.hasAgeRange()) {
+            matches.removeIf(user -> !search.matchesAge(user.age()));
+        }
+        matches.sort(comparator);
+        List<UserEntity> content = matches.stream()
+                .skip(pageable.isPaged() ? pageable.getOffset() : 0)
+                .limit(pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE)
+                .map(IndexedUser::toEntity)
+                .toList();
+        return Optional.of(new PageImpl<>(content, pageable, matches.size()));
+    }
+
+    private static Comparator<IndexedUser> comparatorOf(Sort sort) {
+        Comparator<IndexedUser> comparator = (first, second) -> 0;
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                return null;
+            }
+            Function<IndexedUser, String> nameOf = order.isIgnoreCase() ? IndexedUser::normalizedName : IndexedUser::name;
+            Comparator<IndexedUser> byProperty = order.getProperty().equals("age")
+                    ? Comparator.comparingInt(IndexedUser::age)
+                    : Comparator.comparing(nameOf);
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator.thenComparing(BY_ID);
+    }
+
+    private record IndexedUser(UUID id, String name, String normalizedName, int age, long version) {
+
+        IndexedUser(UUID id, String name, int age, long version) {
+            this(id, name, Trigrams.normalize(name), age, version);
+        }
+
+        UserEntity toEntity() {
+            UserEntity user = new UserEntity(id, name, age);
+            user.setVersion(version);
+            return user;
+        }
+    }
+
+    /**
+     * Users by document number, with the sorted document numbers of each trigram. A renamed or deleted user
+     * leaves a hole behind, and the documents are compacted once holes outnumber users.
+     */
+    private static final class Documents {
+        private static final int MIN_COMPACTION_HOLES = 1024;
+
+        private IndexedUser[] users = new IndexedUser[1024];
+        private int size;
+        private int holes;
+        private long versionSum;
+        private final Map<UUID, Integer> documentsById = new HashMap<>();
+        private final Map<Long, Postings> postingsByTrigram = new HashMap<>();
+
+        void apply(UserChangeEvent event) {
+            if (event.type() == UserChangeEvent.Type.DELETED) {
+                remove(event.id());
+            } else {
+                put(new IndexedUser(event.id(), event.name(), event.age(), event.version() == null ? 0 : event.version()));
+            }
+        }
+
+        void put(IndexedUser user) {
+            Integer existing = documentsById.get(user.id());
+            if (existing != null) {
+                IndexedUser previous = users[existing];
+                versionSum += user.version() - previous.version();
+                if (previous.normalizedName().equals(user.normalizedName())) {
+                    users[existing] = user;
+                    return;
+                }
+                users[existing] = null;
+                holes++;
+            } else {
+                versionSum += user.version();
+            }
+            if (size == users.length) {
+                users = Arrays.copyOf(users, size * 2);
+            }
+            int document = size++;
+            users[document] = user;
+            documentsById.put(user.id(), document);
+            for (String trigram : Trigrams.of(user.name())) {
+                postingsByTrigram.computeIfAbsent(keyOf(trigram), key -> new Postings()).add(document);
+            }
+        }
+
+        void remove(UUID id) {
+            Integer document = documentsById.remove(id);
+            if (document != null) {
+                versionSum -= users[document].version();
+                users[document] = null;
+                holes++;
+            }
+        }
+
+        int count() {
+            return documentsById.size();
+        }
+
+        boolean needsCompaction() {
+            return holes > MIN_COMPACTION_HOLES && holes > count();
+        }
+
+        Documents compact() {
+            Documents compacted = new Documents();
+            for (int document = 0; document < size; document++) {
+                if (users[document] != null) {
+                    compacted.put(users[document]);
+                }
+            }
+            return compacted;
+        }
+
+        /**
+         * Users whose normalized name contains the normalized term. The postings of the term's trigrams are
+         * intersected starting from the shortest, and the candidates are checked against the whole term.
+         */
+        List<IndexedUser> matching(String term) {
+            String normalizedTerm = Trigrams.normalize(term);
+            Set<String> trigrams = Trigrams.of(term);
+            List<IndexedUser> matches = new ArrayList<>();
+            if (trigrams.isEmpty()) {
+                for (int document = 0; document < size; document++) {
+                    IndexedUser user = users[document];
+                    if (user != null && user.normalizedName().contains(normalizedTerm)) {
+                        matches.add(user);
+                    }
+                }
+                return matches;
+            }
+            Postings[] postings = new Postings[trigrams.size()];
+            int index = 0;
+            for (String trigram : trigrams) {
+                Postings trigramPostings = postingsByTrigram.get(keyOf(trigram));
+                if (trigramPostings == null) {
+                    return matches;
+                }
+                postings[index++] = trigramPostings;
+            }
+            Arrays.sort(postings, Comparator.comparingInt(Postings::size));
+            candidates:
+            for (int position = 0; position < postings[0].size(); position++) {
+                int document = postings[0].get(position);
+                for (int other = 1; other < postings.length; other++) {
+                    if (!postings[other].contains(document)) {
+                        continue candidates;
+                    }
+                }
+                IndexedUser user = users[document];
+                if (user != null && user.normalizedName().contains(normalizedTerm)) {
+                    matches.add(user);
+                }
+            }
+            return matches;
+        }
+
+        private static long keyOf(String trigram) {
+            return ((long) trigram.charAt(0) << 32) | ((long) trigram.charAt(1) << 16) | trigram.charAt(2);
+        }
+    }
+
+    /**
+     * Ascending document numbers, appended in order since documents are numbered as they are added.
+     */
+    private static final class Postings {
+        private int[] documents = new int[4];
+        private int size;
+
+        void add(int document) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int position) {
+            return documents[position];
+        }
+
+        boolean contains(int document) {
+            return Arrays.binarySearch(documents, 0, size, document) >= 0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package edu.jl.springhateoas.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Trigrams of user names, as stored in {@code user_name_trigrams}. Both names and search terms are upper-cased
+ * first, so a name contains a term, ignoring case, only if it has every trigram of the term.
+ */
+public final class Trigrams {
+    public static final int LENGTH = 3;
+    public static final char LIKE_ESCAPE = '\\';
+
+    private Trigrams() {
+    }
+
+    public static String normalize(String text) {
+        return text.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigrams of the normalized text, empty when it is shorter than {@value #LENGTH} characters.
+     */
+    public static Set<String> of(String text) {
+        String normalized = normalize(text);
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int start = 0; start + LENGTH <= normalized.length(); start++) {
+            trigrams.add(normalized.substring(start, start + LENGTH));
+        }
+        return trigrams;
+    }
+
+    /**
+     * {@code LIKE} pattern matching the normalized values that contain the normalized term, with the wildcards of
+     * the term escaped by {@value #LIKE_ESCAPE}.
+     */
+    public static String containsPattern(String term) {
+        String normalized = normalize(term);
+        StringBuilder pattern = new StringBuilder(normalized.length() + 2).append('%');
+        for (int index = 0; index < normalized.length(); index++) {
+            char character = normalized.charAt(index);
+            if (character == '%' || character == '_' || character == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(character);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -0,0 +1,116 @@
+package edu.jl.springhateoas.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.jl.springhateoas.event.UserChangeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Totals of the paged user search by normalized name and age range, so paging through a search runs its count
+ * once per {@code app.search.count.cache-ttl} instead of once per page. Any user write clears them, since a save,
+ * an update or a delete can change the total of any search.
+ * <p>
+ * In the {@code estimated} mode, the total of a search by name is first estimated from the share of matching
+ * users among a sample of {@code app.search.count.estimate-sample-size} users. The sample is read in
+ * {@value #SAMPLE_SLICES} slices of the primary key, each from a random id on: ids are random UUIDs, so their order
+ * is unrelated to the order users were inserted in (which is the order H2 scans a table keyed by a UUID), and each
+ * slice is a short range of the primary key index. Estimates of at least {@code app.search.count.estimate-threshold}
+ * users are reported as the total, marked as {@link Count#estimated()}; smaller ones are replaced by the exact count.
+ */
+@Component
+public class UserCountCache {
+    private static final int MAXIMUM_SIZE = 1000;
+    private static final int SAMPLE_SLICES = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean estimated;
+    private final int estimateSampleSize;
+    private final long estimateThreshold;
+    private final Cache<UserSearch, Count> counts;
+
+    @Autowired
+    public UserCountCache(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.search.count.cache-ttl:PT30S}") Duration cacheTtl,
+            @Value("${app.search.count.mode:exact}") String mode,
+            @Value("${app.search.count.estimate-sample-size:1000}") int estimateSampleSize,
+            @Value("${app.search.count.estimate-threshold:10000}") long estimateThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.estimated = mode.equals("estimated");
+        this.estimateSampleSize = estimateSampleSize;
+        this.estimateThreshold = estimateThreshold;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    /**
+     * Total of the users matching a search, and whether it is an estimate rather than a count.
+     */
+    public record Count(long total, boolean estimated) {
+    }
+
+    /**
+     * Total of the users matching the search, counted by {@code exactCount} on a cache miss unless it can be
+     * estimated.
+     */
+    public Count count(UserSearch search, LongSupplier exactCount) {
+        return counts.get(search.normalized(), key -> {
+            if (estimated && !key.name().isEmpty()) {
+                long estimate = estimate(key);
+                if (estimate >= estimateThreshold) {
+                    return new Count(estimate, true);
+                }
+            }
+            return new Count(exactCount.getAsLong(), false);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChangeEvent event) {
+        counts.invalidateAll();
+    }
+
+    // An unfiltered COUNT(*) is answered by H2 from the table's row count, without a scan
+    private long estimate(UserSearch search) {
+        Long users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (users == null || users <= estimateSampleSize) {
+            return 0;
+        }
+        String sample = "SELECT COUNT(*), COALESCE(SUM(CASE WHEN UPPER(name) LIKE ? ESCAPE '" + Trigrams.LIKE_ESCAPE + "'"
+                + (search.hasAgeRange() ? " AND age BETWEEN ? AND ?" : "") + " THEN 1 ELSE 0 END), 0)"
+                + " FROM (SELECT name, age FROM users WHERE user_id >= ? ORDER BY user_id LIMIT ?)";
+        int sliceSize = Math.max(1, estimateSampleSize / SAMPLE_SLICES);
+        long sampled = 0, sampleMatches = 0;
+        for (int slice = 0; slice < SAMPLE_SLICES; slice++) {
+            List<Object> arguments = new ArrayList<>(List.of(Trigrams.containsPattern(search.name())));
+            if (search.hasAgeRange()) {
+                arguments.add(search.minAge() == null ? Integer.MIN_VALUE : search.minAge());
+                arguments.add(search.maxAge() == null ? Integer.MAX_VALUE : search.maxAge());
+            }
+            arguments.add(UUID.randomUUID());
+            arguments.add(sliceSize);
+            long[] sliceCounts = jdbcTemplate.queryForObject(sample,
+                    (resultSet, row) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)}, arguments.toArray());
+            if (sliceCounts != null) {
+                sampled += sliceCounts[0];
+                sampleMatches += sliceCounts[1];
+            }
+        }
+        if (sampled == 0) {
+            return 0;
+        }
+        return Math.round((double) sampleMatches * users / sampled);
+    }
+}
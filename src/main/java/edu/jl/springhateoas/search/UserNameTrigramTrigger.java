@@ -0,0 +1,99 @@
+package edu.jl.springhateoas.search;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps {@code user_name_trigrams} in step with the names in {@code users}, whichever way they are written (JPA,
+ * bulk statements or plain JDBC). Registered in {@code schema.sql} for inserts and updates; deleted users lose
+ * their trigrams through the foreign key cascade. The users written before the trigger existed are indexed by
+ * {@link #backfill}, which {@code schema.sql} also calls.
+ */
+public class UserNameTrigramTrigger implements Trigger {
+    private static final String DELETE_TRIGRAMS = "DELETE FROM user_name_trigrams WHERE user_id = ?";
+    private static final String INSERT_TRIGRAM = "INSERT INTO user_name_trigrams (trigram, user_id) VALUES (?, ?)";
+    private static final String SELECT_USERS_WITHOUT_TRIGRAMS = "SELECT u.user_id, u.name FROM users u "
+            + "WHERE NOT EXISTS (SELECT 1 FROM user_name_trigrams t WHERE t.user_id = u.user_id)";
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private int userIdColumn;
+    private int nameColumn;
+
+    @Override
+    public void init(Connection connection, String schemaName, String triggerName, String tableName, boolean before, int type) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet columns = metaData.getColumns(null, schemaName, tableName, null)) {
+            while (columns.next()) {
+                String column = columns.getString("COLUMN_NAME");
+                int index = columns.getInt("ORDINAL_POSITION") - 1;
+                if (column.equalsIgnoreCase("user_id")) {
+                    userIdColumn = index;
+                } else if (column.equalsIgnoreCase("name")) {
+                    nameColumn = index;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+        if (oldRow != null && Objects.equals(oldRow[nameColumn], newRow[nameColumn])
+                && Objects.equals(oldRow[userIdColumn], newRow[userIdColumn])) {
+            return;
+        }
+        if (oldRow != null) {
+            try (PreparedStatement delete = connection.prepareStatement(DELETE_TRIGRAMS)) {
+                delete.setObject(1, oldRow[userIdColumn]);
+                delete.executeUpdate();
+            }
+        }
+        Set<String> trigrams = Trigrams.of((String) newRow[nameColumn]);
+        if (trigrams.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_TRIGRAM)) {
+            addTrigrams(insert, newRow[userIdColumn], trigrams);
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Inserts the trigrams of the users that have none, in batches of {@value #BACKFILL_BATCH_SIZE} users, and
+     * returns how many users were indexed. Users whose names are too short for a trigram are looked at again on
+     * every call, but get none. Called through the {@code backfill_user_name_trigrams} alias of {@code schema.sql}.
+     */
+    public static int backfill(Connection connection) throws SQLException {
+        int users = 0;
+        try (PreparedStatement select = connection.prepareStatement(SELECT_USERS_WITHOUT_TRIGRAMS);
+             PreparedStatement insert = connection.prepareStatement(INSERT_TRIGRAM);
+             ResultSet rows = select.executeQuery()) {
+            while (rows.next()) {
+                Set<String> trigrams = Trigrams.of(rows.getString("name"));
+                if (trigrams.isEmpty()) {
+                    continue;
+                }
+                addTrigrams(insert, rows.getObject("user_id"), trigrams);
+                if (++users % BACKFILL_BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        return users;
+    }
+
+    private static void addTrigrams(PreparedStatement insert, Object userId, Set<String> trigrams) throws SQLException {
+        for (String trigram : trigrams) {
+            insert.setString(1, trigram);
+            insert.setObject(2, userId);
+            insert.addBatch();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package edu.jl.springhateoas.search;
+
+import edu.jl.springhateoas.exception.BadRequestException;
+
+/**
+ * Filters of the paged user search: a substring of the name, ignoring case, and an inclusive age range. An empty
+ * name or a missing bound does not filter.
+ */
+public record UserSearch(String name, Integer minAge, Integer maxAge) {
+
+    public static UserSearch of(String name, Integer minAge, Integer maxAge) {
+        if (minAge != null && maxAge != null && minAge > maxAge) {
+            throw new BadRequestException("minAge " + minAge + " must not be greater than maxAge " + maxAge + "!");
+        }
+        return new UserSearch(name == null ? "" : name, minAge, maxAge);
+    }
+
+    public static UserSearch byName(String name) {
+        return of(name, null, null);
+    }
+
+    public boolean hasAgeRange() {
+        return minAge != null || maxAge != null;
+    }
+
+    public boolean matchesAge(int age) {
+        return (minAge == null || age >= minAge) && (maxAge == null || age <= maxAge);
+    }
+
+    /**
+     * The same search with the name normalized as by {@link Trigrams#normalize}, so that searches differing only
+     * in case are equal.
+     */
+    public UserSearch normalized() {
+        return new UserSearch(Trigrams.normalize(name), minAge, maxAge);
+    }
+}
@@ -1,21 +1,45 @@
 package edu.jl.springhateoas.service;
 
+import edu.jl.springhateoas.dto.batch.BatchResponseDto;
+import edu.jl.springhateoas.dto.user.UserBatchUpdateRequestDto;
 import edu.jl.springhateoas.dto.user.UserRequestDto;
 import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.dto.user.UserStatisticsDto;
+import edu.jl.springhateoas.export.UserExportFormat;
+import edu.jl.springhateoas.pagination.UserCursor;
+import edu.jl.springhateoas.projection.UserFieldSelection;
+import edu.jl.springhateoas.search.UserSearch;
 import org.springframework.data.domain.Pageable;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
 public interface UserService {
-    UserResponseDto findById(UUID id, Boolean hateoasEnabled);
+    UserResponseDto findById(UUID id, Boolean hateoasEnabled, UserFieldSelection selection);
+    long findVersionById(UUID id);
     UserResponseDto save(UserRequestDto userRequestDto, Boolean hateoasEnabled);
 
-    CollectionModel<UserResponseDto> findAll(Boolean hateoasEnabled);
-    PagedModel<UserResponseDto> findByNameContainingIgnoreCase(String name, Boolean hateoasEnabled, Pageable pageable);
+    CollectionModel<UserResponseDto> findAll(Boolean hateoasEnabled, UserFieldSelection selection);
+    StreamingResponseBody streamAll(Boolean hateoasEnabled);
+    StreamingResponseBody export(UserExportFormat format);
+    PagedModel<UserResponseDto> search(UserSearch search, Boolean hateoasEnabled, Pageable pageable, UserFieldSelection selection);
+    CollectionModel<UserResponseDto> search(UserSearch search, Boolean hateoasEnabled, UserCursor cursor, int size, UserFieldSelection selection);
 
-    UserResponseDto update(UUID id, UserRequestDto userUpdate, Boolean hateoasEnabled);
+    UserResponseDto update(UUID id, UserRequestDto userUpdate, Boolean hateoasEnabled, Long expectedVersion);
 
     void delete(UUID id);
+
+    UserStatisticsDto statistics();
+
+    BatchResponseDto saveAll(List<UserRequestDto> userRequests);
+    BatchResponseDto updateAll(List<UserBatchUpdateRequestDto> userUpdates);
+    BatchResponseDto deleteAll(List<UUID> ids);
+
+    StreamingResponseBody importUsers(MediaType contentType, InputStream body) throws IOException;
 }
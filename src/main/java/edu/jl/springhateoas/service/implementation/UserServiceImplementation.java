@@ -1,179 +1,451 @@
 package edu.jl.springhateoas.service.implementation;
 
-import edu.jl.springhateoas.controller.UserController;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.jl.springhateoas.dto.batch.BatchItemResponseDto;
+import edu.jl.springhateoas.dto.batch.BatchResponseDto;
+import edu.jl.springhateoas.dto.user.UserBatchUpdateRequestDto;
 import edu.jl.springhateoas.dto.user.UserRequestDto;
 import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.dto.user.UserStatisticsDto;
 import edu.jl.springhateoas.entity.UserEntity;
+import edu.jl.springhateoas.event.UserChangeEvent;
+import edu.jl.springhateoas.exception.BadRequestException;
+import edu.jl.springhateoas.export.UserExportFormat;
+import edu.jl.springhateoas.export.UserExporter;
+import edu.jl.springhateoas.exception.PreconditionFailedException;
 import edu.jl.springhateoas.exception.ResourceNotFoundException;
+import edu.jl.springhateoas.importing.UserImporter;
+import edu.jl.springhateoas.link.UserLinkTemplates;
 import edu.jl.springhateoas.mapper.Mapper;
+import edu.jl.springhateoas.monitoring.UserServiceMetrics;
+import edu.jl.springhateoas.pagination.EstimatedPageMetadata;
+import edu.jl.springhateoas.pagination.UserCursor;
+import edu.jl.springhateoas.projection.UserFieldSelection;
 import edu.jl.springhateoas.repository.UserRepository;
+import edu.jl.springhateoas.repository.specification.UserSpecifications;
+import edu.jl.springhateoas.search.InMemoryUserNameIndex;
+import edu.jl.springhateoas.search.UserCountCache;
+import edu.jl.springhateoas.search.UserSearch;
 import edu.jl.springhateoas.service.UserService;
+import edu.jl.springhateoas.statistics.UserAgeStatistics;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.hateoas.CollectionModel;
-import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import static edu.jl.springhateoas.monitoring.UserServiceMetrics.Stage.LINKS;
+import static edu.jl.springhateoas.monitoring.UserServiceMetrics.Stage.MAPPER;
+import static edu.jl.springhateoas.monitoring.UserServiceMetrics.Stage.REPOSITORY;
 
 
 @Service
 public class UserServiceImplementation implements UserService {
+    private static final Sort KEYSET_SORT = Sort.by("name", "id");
+
     private final Mapper mapper;
     private final UserRepository userRepository;
+    private final UserLinkTemplates userLinkTemplates;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter userResponseHalWriter;
+    private final Validator validator;
+    private final int batchMaxSize;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Optional<InMemoryUserNameIndex> userNameIndex;
+    private final UserCountCache userCountCache;
+    private final UserAgeStatistics userAgeStatistics;
+    private final UserExporter userExporter;
+    private final UserImporter userImporter;
+    private final UserServiceMetrics metrics;
 
     @Autowired
-    public UserServiceImplementation(Mapper mapper, UserRepository userRepository) {
+    public UserServiceImplementation(
+            Mapper mapper,
+            UserRepository userRepository,
+            UserLinkTemplates userLinkTemplates,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            ObjectWriter userResponseHalWriter,
+            Validator validator,
+            @Value("${app.batch.max-size:1000}") int batchMaxSize,
+            ApplicationEventPublisher eventPublisher,
+            Optional<InMemoryUserNameIndex> userNameIndex,
+            UserCountCache userCountCache,
+            UserAgeStatistics userAgeStatistics,
+            UserExporter userExporter,
+            UserImporter userImporter,
+            UserServiceMetrics metrics) {
         this.mapper = mapper;
         this.userRepository = userRepository;
+        this.userLinkTemplates = userLinkTemplates;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.userResponseHalWriter = userResponseHalWriter;
+        this.validator = validator;
+        this.batchMaxSize = batchMaxSize;
+        this.eventPublisher = eventPublisher;
+        this.userNameIndex = userNameIndex;
+        this.userCountCache = userCountCache;
+        this.userAgeStatistics = userAgeStatistics;
+        this.userExporter = userExporter;
+        this.userImporter = userImporter;
+        this.metrics = metrics;
     }
 
-    public UserResponseDto findById(UUID id, Boolean hateoasEnabled) {
-        UserEntity foundUser = userRepository.findById(id)
+    public UserResponseDto findById(UUID id, Boolean hateoasEnabled, UserFieldSelection selection) {
+        UserEntity foundUser = metrics.timer("findById", REPOSITORY, hateoasEnabled)
+                .record(() -> userRepository.findById(id))
+                .orElseThrow(() -> new ResourceNotFoundException("User with id " + id + " was not found!"));
+        return toUserResponses("findById", hateoasEnabled, selection, List.of(foundUser)).get(0);
+    }
+
+    /**
+     * Current version of a user, read through the users cache so conditional requests can be answered without
+     * mapping the user.
+     */
+    @Override
+    public long findVersionById(UUID id) {
+        return userRepository.findById(id)
+                .map(UserEntity::getVersion)
                 .orElseThrow(() -> new ResourceNotFoundException("User with id " + id + " was not found!"));
-        UserResponseDto userResponse = mapper.convertObject(foundUser, UserResponseDto.class);
-        if (hateoasEnabled) {
-            applyLinks(userResponse);
-        }
-        return userResponse;
     }
 
     @Override
     public UserResponseDto save(UserRequestDto userRequestDto, Boolean hateoasEnabled) {
-        UserEntity savedUser = userRepository.save(mapper.convertObject(userRequestDto, UserEntity.class));
-        UserResponseDto savedUserResponse = mapper.convertObject(savedUser, UserResponseDto.class);
-        if (hateoasEnabled) {
-            applyLinks(savedUserResponse);
-        }
-        return savedUserResponse;
+        UserEntity userToSave = mapper.convertObject(userRequestDto, UserEntity.class);
+        UserEntity savedUser = metrics.timer("save", REPOSITORY, hateoasEnabled).record(() -> userRepository.save(userToSave));
+        eventPublisher.publishEvent(UserChangeEvent.saved(savedUser));
+        return toUserResponses("save", hateoasEnabled, UserFieldSelection.ALL, List.of(savedUser)).get(0);
+    }
+
+    /**
+     * Lists every user. With a sparse fieldset, only the columns it needs are fetched.
+     */
+    @Override
+    public CollectionModel<UserResponseDto> findAll(Boolean hateoasEnabled, UserFieldSelection selection) {
+        List<UserEntity> allUsers = metrics.timer("findAll", REPOSITORY, hateoasEnabled).record(() -> selection.allFields()
+                ? userRepository.findAll()
+                : userRepository.findAll(Specification.where(null), selection.columns(hateoasEnabled), Pageable.unpaged()).getContent());
+        List<UserResponseDto> userResponses = toUserResponses("findAll", hateoasEnabled, selection, allUsers);
+        return hateoasEnabled
+                ? CollectionModel.of(userResponses, userLinkTemplates.collectionSelfLink())
+                : CollectionModel.of(userResponses);
     }
 
+    /**
+     * Writes every user as newline-delimited JSON while the rows are fetched, detaching each entity once
+     * written so memory does not grow with the table size. The links are resolved here, on the request
+     * thread, since the body is written asynchronously.
+     */
     @Override
-    public CollectionModel<UserResponseDto> findAll(Boolean hateoasEnabled) {
-        List<UserEntity> allUsers = userRepository.findAll();
-        List<UserResponseDto> userResponses;
-        if (!hateoasEnabled) {
-            userResponses = mapper.convertList(allUsers, UserResponseDto.class);
-            return CollectionModel.of(userResponses);
+    public StreamingResponseBody streamAll(Boolean hateoasEnabled) {
+        Function<UserResponseDto, UserResponseDto> linksApplier = hateoasEnabled
+                ? userLinkTemplates.forCurrentRequest()
+                : Function.identity();
+        return outputStream -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<UserEntity> users = userRepository.streamAll();
+                 JsonGenerator generator = userResponseHalWriter.createGenerator(outputStream)) {
+                users.forEach(user -> {
+                    UserResponseDto userResponse = linksApplier.apply(mapper.convertObject(user, UserResponseDto.class));
+                    entityManager.detach(user);
+                    try {
+                        userResponseHalWriter.writeValue(generator, userResponse);
+                        generator.writeRaw('\n');
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+    }
+
+    /**
+     * Writes every user in the given format, straight from the rows, without entities, responses or links.
+     */
+    @Override
+    public StreamingResponseBody export(UserExportFormat format) {
+        return userExporter.export(format);
+    }
+
+    /**
+     * Pages through the users whose name contains the given one, within the age range if any. With a sparse
+     * fieldset, only the columns it needs are fetched. The total comes from the count cache, so the pages of a
+     * search share a single count, and its page metadata tells when that total is an estimate.
+     */
+    @Override
+    public PagedModel<UserResponseDto> search(UserSearch search, Boolean hateoasEnabled, Pageable pageable, UserFieldSelection selection) {
+        Specification<UserEntity> specification = UserSpecifications.matching(search);
+        AtomicBoolean estimatedTotal = new AtomicBoolean();
+        LongSupplier totalCount = () -> {
+            UserCountCache.Count count = userCountCache.count(search, () -> userRepository.count(specification));
+            estimatedTotal.set(count.estimated());
+            return count.total();
+        };
+        Page<UserEntity> paginatedUsers = metrics.timer("findPaged", REPOSITORY, hateoasEnabled).record(() -> userNameIndex
+                .flatMap(index -> index.search(search, pageable))
+                .orElseGet(() -> selection.allFields()
+                        ? userRepository.findAll(specification, pageable, totalCount)
+                        : userRepository.findAll(specification, selection.columns(hateoasEnabled), pageable, totalCount)));
+        Page<UserResponseDto> paginatedUserResponses = new PageImpl<>(
+                toUserResponses("findPaged", hateoasEnabled, selection, paginatedUsers.getContent()),
+                paginatedUsers.getPageable(),
+                paginatedUsers.getTotalElements());
+        PagedModel<UserResponseDto> pagedModel = hateoasEnabled
+                ? metrics.timer("findPaged", LINKS, true).record(() -> userLinkTemplates.applyPageLinks(paginatedUserResponses))
+                : PagedModel.of(
+                        paginatedUserResponses.getContent(),
+                        new PagedModel.PageMetadata(
+                                paginatedUserResponses.getSize(),
+                                paginatedUserResponses.getNumber(),
+                                paginatedUserResponses.getTotalElements(),
+                                paginatedUserResponses.getTotalPages()
+                        )
+                );
+        if (estimatedTotal.get() && pagedModel.getMetadata() != null) {
+            return PagedModel.of(pagedModel.getContent(), new EstimatedPageMetadata(pagedModel.getMetadata()), pagedModel.getLinks());
         }
-        userResponses = allUsers.stream()
-                .map(user -> mapper.convertObject(user, UserResponseDto.class))
-                .map(this::applyLinks)
-                .toList();
-        return CollectionModel.of(
-                userResponses,
-                linkTo(methodOn(UserController.class).findAll(true)).withSelfRel()
-        );
+        return pagedModel;
     }
 
     @Override
-    public PagedModel<UserResponseDto> findByNameContainingIgnoreCase(String name, Boolean hateoasEnabled, Pageable pageable) {
-        Page<UserEntity> paginatedUsers = userRepository.findByNameContainingIgnoreCase(name, pageable);
-        Page<UserResponseDto> paginatedUserResponses;
-        if (hateoasEnabled) {
-            paginatedUserResponses = paginatedUsers
-                    .map(userEntity -> mapper.convertObject(userEntity, UserResponseDto.class))
-                    .map(this::applyLinks);
-            return applyPageLinks(paginatedUserResponses);
+    public CollectionModel<UserResponseDto> search(UserSearch search, Boolean hateoasEnabled, UserCursor cursor, int size, UserFieldSelection selection) {
+        Window<UserEntity> window = metrics.timer("findKeyset", REPOSITORY, hateoasEnabled).record(() -> userRepository
+                .findBy(UserSpecifications.matching(search), query -> query
+                        .sortBy(KEYSET_SORT)
+                        .limit(size)
+                        .scroll(cursor.toScrollPosition())));
+        List<UserResponseDto> userResponses = toUserResponses("findKeyset", hateoasEnabled,
+                new UserFieldSelection(UserFieldSelection.ALL.fields(), selection.rels()), window.getContent());
+
+        // A backward window reads towards the first user, so its hasNext() tells whether there is a previous slice
+        UserCursor next = null, previous = null;
+        if (!userResponses.isEmpty()) {
+            boolean hasNext = cursor.isBackward() || window.hasNext();
+            boolean hasPrevious = cursor.isBackward() ? window.hasNext() : !cursor.isFirst();
+            next = hasNext ? UserCursor.after(userResponses.get(userResponses.size() - 1)) : null;
+            previous = hasPrevious ? UserCursor.before(userResponses.get(0)) : null;
+        }
+        // The cursors need the id and name, so the fieldset only applies once they are built
+        if (!selection.allFields()) {
+            userResponses.forEach(selection::trim);
         }
-        paginatedUserResponses = paginatedUsers.map(userEntity -> mapper.convertObject(userEntity, UserResponseDto.class));
-        return PagedModel.of(
-                paginatedUserResponses.getContent(),
-                new PagedModel.PageMetadata(
-                        paginatedUserResponses.getSize(),
-                        paginatedUserResponses.getNumber(),
-                        paginatedUserResponses.getTotalElements(),
-                        paginatedUserResponses.getTotalPages()
-                )
-        );
+        return userLinkTemplates.applySliceLinks(userResponses, next, previous);
     }
 
+    /**
+     * Updates the user with a single statement and builds the response from the update itself, so the user is
+     * never read. Only a failed update looks the user up, to tell a missing user from a stale version.
+     */
     @Override
     @Transactional
-    public UserResponseDto update(UUID id, UserRequestDto userUpdate, Boolean hateoasEnabled) {
-        UserEntity foundUser = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User with id " + id + " was not found!"));
-        mapper.copyProperties(userUpdate, foundUser);
-        UserEntity updatedUser = userRepository.save(foundUser);
-        UserResponseDto updatedUserResponse = mapper.convertObject(updatedUser, UserResponseDto.class);
+    public UserResponseDto update(UUID id, UserRequestDto userUpdate, Boolean hateoasEnabled, Long expectedVersion) {
+        UserRepository.UserUpdate update = metrics.timer("update", REPOSITORY, hateoasEnabled)
+                .record(() -> userRepository.updateById(id, userUpdate.getName(), userUpdate.getAge(), expectedVersion))
+                .orElseThrow(() -> expectedVersion != null && userRepository.existsById(id)
+                        ? new PreconditionFailedException("User with id " + id + " was modified since version " + expectedVersion + "!")
+                        : new ResourceNotFoundException("User with id " + id + " was not found!"));
+        eventPublisher.publishEvent(UserChangeEvent.updated(id, userUpdate.getName(), userUpdate.getAge(), update.getVersion(), update.getPreviousAge()));
+        UserResponseDto updatedUserResponse = new UserResponseDto(id, userUpdate.getName(), userUpdate.getAge());
+        updatedUserResponse.setVersion(update.getVersion());
         if (hateoasEnabled) {
-            applyLinks(updatedUserResponse);
+            metrics.timer("update", LINKS, true).record(() -> userLinkTemplates.applyLinks(updatedUserResponse));
         }
         return updatedUserResponse;
     }
 
     @Override
     public void delete(UUID id) {
-        UserEntity foundUser = userRepository.findById(id)
+        Integer previousAge = metrics.timer("delete", REPOSITORY, false)
+                .record(() -> userRepository.deleteUserById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("User with id " + id + " was not found!"));
-        userRepository.delete(foundUser);
-    }
-
-    private UserResponseDto applyLinks(UserResponseDto userResponseDto) {
-        try {
-            userResponseDto.add(linkTo(methodOn(UserController.class).findById(userResponseDto.getId(), true)).withSelfRel());
-            userResponseDto.add(linkTo(methodOn(UserController.class).save(new UserRequestDto("John Doe", 25), true)).withRel("create"));
-            userResponseDto.add(linkTo(methodOn(UserController.class).delete(userResponseDto.getId())).withRel("delete"));
-            userResponseDto.add(linkTo(methodOn(UserController.class).update(userResponseDto.getId(), new UserRequestDto("John Doe", 25), true)).withRel("update"));
-            return userResponseDto;
-        } catch (Exception exception) {
-            throw new RuntimeException("Links could not be added to object " + userResponseDto.getClass().getName() + "!");
-        }
-
+        eventPublisher.publishEvent(UserChangeEvent.deleted(id, previousAge));
     }
 
-    private PagedModel<UserResponseDto> applyPageLinks(Page<UserResponseDto> page) {
-        int size = page.getSize(), number = page.getNumber();
-        long totalElements = page.getTotalElements();
-        List<Link> links = new ArrayList<>();
-        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+    /**
+     * Statistics of the users, from the counts by age kept up to date by the service writes.
+     */
+    @Override
+    public UserStatisticsDto statistics() {
+        return userAgeStatistics.statistics();
+    }
 
-        Function<Integer, String> buildOrderedUri = (pageNumber) -> {
-            UriComponentsBuilder adjustedUriBuilder = uriBuilder.cloneBuilder()
-                    .replaceQueryParam("name", uriBuilder.build().getQueryParams().getFirst("name")) 
-                    .replaceQueryParam("size", size) 
-                    .replaceQueryParam("page", pageNumber) 
-                    .replaceQueryParam("sort", uriBuilder.build().getQueryParams().getFirst("sort"))
-                    .replaceQueryParam("hateoas", "true");
-            return adjustedUriBuilder.toUriString();
-        };
+    /**
+     * Inserts the valid users in a single transaction, so Hibernate sends them in JDBC batches.
+     */
+    @Override
+    @Transactional
+    public BatchResponseDto saveAll(List<UserRequestDto> userRequests) {
+        checkBatchSize(userRequests);
+        BatchItemResponseDto[] results = new BatchItemResponseDto[userRequests.size()];
+        List<Integer> validIndexes = new ArrayList<>(userRequests.size());
+        List<UserEntity> usersToSave = new ArrayList<>(userRequests.size());
+        for (int index = 0; index < userRequests.size(); index++) {
+            UserRequestDto userRequest = userRequests.get(index);
+            String violations = violationsOf(userRequest);
+            if (violations != null) {
+                results[index] = new BatchItemResponseDto(index, null, HttpStatus.BAD_REQUEST.value(), violations);
+                continue;
+            }
+            validIndexes.add(index);
+            usersToSave.add(mapper.convertObject(userRequest, UserEntity.class));
+        }
+        List<UserEntity> savedUsers = userRepository.saveAll(usersToSave);
+        for (int i = 0; i < savedUsers.size(); i++) {
+            int index = validIndexes.get(i);
+            results[index] = new BatchItemResponseDto(index, savedUsers.get(i).getId(), HttpStatus.CREATED.value(), null);
+        }
+        savedUsers.forEach(savedUser -> eventPublisher.publishEvent(UserChangeEvent.saved(savedUser)));
+        return BatchResponseDto.of(Arrays.asList(results));
+    }
 
-        // self
-        links.add(Link.of(buildOrderedUri.apply(number)).withSelfRel());
+    /**
+     * Loads the users to update with one query and flushes their updates in JDBC batches.
+     */
+    @Override
+    @Transactional
+    public BatchResponseDto updateAll(List<UserBatchUpdateRequestDto> userUpdates) {
+        checkBatchSize(userUpdates);
+        BatchItemResponseDto[] results = new BatchItemResponseDto[userUpdates.size()];
+        Set<UUID> ids = new HashSet<>();
+        for (int index = 0; index < userUpdates.size(); index++) {
+            UserBatchUpdateRequestDto userUpdate = userUpdates.get(index);
+            String violations = violationsOf(userUpdate);
+            if (violations != null) {
+                results[index] = new BatchItemResponseDto(index, userUpdate == null ? null : userUpdate.getId(), HttpStatus.BAD_REQUEST.value(), violations);
+                continue;
+            }
+            ids.add(userUpdate.getId());
+        }
+        Map<UUID, UserEntity> foundUsers = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(UserEntity::getId, Function.identity()));
+        Map<UUID, Integer> previousAges = foundUsers.values().stream()
+                .collect(Collectors.toMap(UserEntity::getId, UserEntity::getAge));
+        for (int index = 0; index < userUpdates.size(); index++) {
+            if (results[index] != null) {
+                continue;
+            }
+            UserBatchUpdateRequestDto userUpdate = userUpdates.get(index);
+            UserEntity foundUser = foundUsers.get(userUpdate.getId());
+            if (foundUser == null) {
+                results[index] = new BatchItemResponseDto(index, userUpdate.getId(), HttpStatus.NOT_FOUND.value(), "User with id " + userUpdate.getId() + " was not found!");
+                continue;
+            }
+            mapper.copyProperties(userUpdate, foundUser);
+            results[index] = new BatchItemResponseDto(index, userUpdate.getId(), HttpStatus.OK.value(), null);
+        }
+        userRepository.saveAllAndFlush(foundUsers.values())
+                .forEach(updatedUser -> eventPublisher.publishEvent(UserChangeEvent.updated(updatedUser, previousAges.get(updatedUser.getId()))));
+        return BatchResponseDto.of(Arrays.asList(results));
+    }
 
-        // first
-        links.add(Link.of(buildOrderedUri.apply(0)).withRel("first"));
+    /**
+     * Deletes the existing users with a single statement, reporting the ids that do not exist.
+     */
+    @Override
+    @Transactional
+    public BatchResponseDto deleteAll(List<UUID> ids) {
+        checkBatchSize(ids);
+        Map<UUID, Integer> existingAges = userRepository.findAgesByIds(ids.stream().filter(Objects::nonNull).toList()).stream()
+                .collect(Collectors.toMap(UserRepository.UserAge::getId, UserRepository.UserAge::getAge));
+        List<BatchItemResponseDto> results = new ArrayList<>(ids.size());
+        for (int index = 0; index < ids.size(); index++) {
+            UUID id = ids.get(index);
+            if (id == null) {
+                results.add(new BatchItemResponseDto(index, null, HttpStatus.BAD_REQUEST.value(), "id: must not be null"));
+            } else if (existingAges.containsKey(id)) {
+                results.add(new BatchItemResponseDto(index, id, HttpStatus.NO_CONTENT.value(), null));
+            } else {
+                results.add(new BatchItemResponseDto(index, id, HttpStatus.NOT_FOUND.value(), "User with id " + id + " was not found!"));
+            }
+        }
+        userRepository.deleteAllByIdInBatch(existingAges.keySet());
+        existingAges.forEach((id, age) -> eventPublisher.publishEvent(UserChangeEvent.deleted(id, age)));
+        return BatchResponseDto.of(results);
+    }
 
-        // last
-        int lastPage = (int) Math.ceil((double) totalElements / size) - 1;
-        lastPage = Math.max(lastPage, 0);
-        links.add(Link.of(buildOrderedUri.apply(lastPage)).withRel("last"));
+    /**
+     * Imports the users of a CSV or NDJSON body through a parse, validate and insert pipeline, reporting progress
+     * and the rows that were not imported as the body is read.
+     */
+    @Override
+    public StreamingResponseBody importUsers(MediaType contentType, InputStream body) throws IOException {
+        return userImporter.importUsers(contentType, body);
+    }
 
-        // next
-        if (number < lastPage) {
-            links.add(Link.of(buildOrderedUri.apply(number + 1)).withRel("next"));
+    /**
+     * Maps users to their responses with the selected links, then leaves out the fields that were not selected.
+     * The mapping and the links of the whole list are each timed once, as stages of the given endpoint: a timer
+     * sample per user would cost about as much as what it measures.
+     */
+    private List<UserResponseDto> toUserResponses(String endpoint, boolean hateoasEnabled, UserFieldSelection selection, List<UserEntity> users) {
+        List<UserResponseDto> userResponses = metrics.timer(endpoint, MAPPER, hateoasEnabled)
+                .record(() -> mapper.convertList(users, UserResponseDto.class));
+        if (hateoasEnabled) {
+            Function<UserResponseDto, UserResponseDto> linksBuilder = userLinkTemplates.forCurrentRequest(selection.rels());
+            metrics.timer(endpoint, LINKS, true).record(() -> userResponses.forEach(linksBuilder::apply));
+        }
+        if (!selection.allFields()) {
+            userResponses.forEach(selection::trim);
         }
+        return userResponses;
+    }
 
-        // prev
-        if (number > 0) {
-            links.add(Link.of(buildOrderedUri.apply(number - 1)).withRel("prev"));
+    private void checkBatchSize(List<?> items) {
+        if (items == null || items.isEmpty() || items.size() > batchMaxSize) {
+            throw new BadRequestException("A batch must have between 1 and " + batchMaxSize + " items!");
         }
+    }
 
-        return PagedModel.of(
-                page.getContent(),
-                new PagedModel.PageMetadata(size, number, totalElements, lastPage + 1),
-                links
-        );
+    private String violationsOf(Object item) {
+        if (item == null) {
+            return "item: must not be null";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
     }
 }
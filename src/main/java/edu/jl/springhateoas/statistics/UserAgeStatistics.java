@@ -0,0 +1,278 @@
+package edu.jl.springhateoas.statistics;
+
+import edu.jl.springhateoas.dto.user.UserStatisticsDto;
+import edu.jl.springhateoas.event.UserChangeEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Number of users by age, kept in memory so the user statistics are answered without going to the database.
+ * <p>
+ * The counts are read from the users table ({@code GROUP BY age}, from the age index) once the application is
+ * ready, then follow the {@link UserChangeEvent}s of the service: each age has a {@link LongAdder}, so concurrent
+ * writes do not contend on a single counter. Every {@code app.statistics.reconcile-interval} the counts are read
+ * again and replace the maintained ones, correcting any drift (e.g. rows written around the service).
+ * <p>
+ * A change begins just before its transaction commits and ends once applied after the commit (or rolled back).
+ * Counts read while a change was in flight are thrown away and read again, as they cannot tell whether they hold
+ * it: one committed before the read but applied after the swap would otherwise be counted twice. A change whose
+ * previous age is unknown leaves the counts stale; the statistics keep being answered from them while they are
+ * read again in the background.
+ */
+@Component
+public class UserAgeStatistics {
+    private static final Logger logger = LoggerFactory.getLogger(UserAgeStatistics.class);
+    private static final int MAX_RECONCILE_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int bucketWidth;
+    // Changes apply concurrently under the read lock; the write lock only swaps the counts
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private AgeCounts counts;
+    private volatile boolean stale = true;
+    // Changes begun and ended so far, telling a reconciliation whether any was in flight while it read the table
+    private final LongAdder changesBegun = new LongAdder();
+    private final LongAdder changesEnded = new LongAdder();
+    // Reconciles the stale counts off the statistics requests, one at a time
+    private final ExecutorService reconciler;
+    private final AtomicBoolean reconcileScheduled = new AtomicBoolean();
+
+    @Autowired
+    public UserAgeStatistics(JdbcTemplate jdbcTemplate, @Value("${app.statistics.bucket-width:10}") int bucketWidth) {
+        this(jdbcTemplate, bucketWidth, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-statistics");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    UserAgeStatistics(JdbcTemplate jdbcTemplate, int bucketWidth, ExecutorService reconciler) {
+        if (bucketWidth < 1) {
+            throw new IllegalArgumentException("app.statistics.bucket-width must be positive, was " + bucketWidth);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.bucketWidth = bucketWidth;
+        this.reconciler = reconciler;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reconciler.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.statistics.reconcile-interval:PT5M}",
+            fixedDelayString = "${app.statistics.reconcile-interval:PT5M}")
+    public synchronized void reconcile() {
+        AgeCounts reconciled = null;
+        for (int attempt = 1; attempt <= MAX_RECONCILE_ATTEMPTS; attempt++) {
+            // Read in this order, equal sums mean that no change was in flight at some point in between
+            long endedBefore = changesEnded.sum();
+            long begunBefore = changesBegun.sum();
+            reconciled = new AgeCounts();
+            AgeCounts read = reconciled;
+            jdbcTemplate.query("SELECT age, COUNT(*) FROM users GROUP BY age",
+                    resultSet -> {
+                        read.add(resultSet.getInt(1), resultSet.getLong(2));
+                    });
+            boolean wasStale;
+            AgeCounts maintained;
+            lock.writeLock().lock();
+            try {
+                // A change in flight while the table was read may or may not be in the counts read
+                if (endedBefore != begunBefore || changesBegun.sum() != begunBefore) {
+                    continue;
+                }
+                wasStale = stale;
+                maintained = counts;
+                counts = reconciled;
+                stale = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            // Stale counts are known to be off, only a drift of counts that followed every change is worth a warning
+            if (!wasStale && maintained != null && !maintained.snapshot().equals(reconciled.snapshot())) {
+                logger.warn("User age statistics drifted from the database ({} users counted, {} in the database), corrected",
+                        maintained.total(), reconciled.total());
+            }
+            return;
+        }
+        logger.debug("User age statistics changed while reconciled {} times in a row, reconciling later", MAX_RECONCILE_ATTEMPTS);
+        lock.writeLock().lock();
+        try {
+            // Counts read during changes beat having none, but are read again before the next statistics
+            if (counts == null) {
+                counts = reconciled;
+                stale = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Begins a change before its transaction commits, so that a reconciliation reading the table from then on
+     * knows of it, and applies it once committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserChange(UserChangeEvent event) {
+        changesBegun.increment();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    apply(event);
+                } else {
+                    // Whether a commit that failed midway was written is unknown
+                    if (status == STATUS_UNKNOWN) {
+                        stale = true;
+                    }
+                    changesEnded.increment();
+                }
+            }
+        });
+    }
+
+    private void apply(UserChangeEvent event) {
+        lock.readLock().lock();
+        try {
+            if (counts != null && !counts.apply(event)) {
+                stale = true;
+            }
+            changesEnded.increment();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count, age range, average age and histogram of the users, in buckets of {@code app.statistics.bucket-width}
+     * years aligned on multiples of it. Stale counts are answered as they are, and read again in the background.
+     */
+    public UserStatisticsDto statistics() {
+        TreeMap<Integer, Long> countsByAge;
+        lock.readLock().lock();
+        try {
+            countsByAge = counts != null ? counts.snapshot() : new TreeMap<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (stale) {
+            scheduleReconcile();
+        }
+        if (countsByAge.isEmpty()) {
+            return new UserStatisticsDto(0, null, null, null, List.of());
+        }
+        long count = 0, ageSum = 0;
+        for (Map.Entry<Integer, Long> ageCount : countsByAge.entrySet()) {
+            count += ageCount.getValue();
+            ageSum += ageCount.getKey() * ageCount.getValue();
+        }
+        int minAge = countsByAge.firstKey(), maxAge = countsByAge.lastKey();
+        List<UserStatisticsDto.AgeBucket> histogram = new ArrayList<>();
+        for (int bucketMin = Math.floorDiv(minAge, bucketWidth) * bucketWidth; bucketMin <= maxAge; bucketMin += bucketWidth) {
+            int bucketMax = bucketMin + bucketWidth - 1;
+            long bucketCount = countsByAge.subMap(bucketMin, true, bucketMax, true).values().stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+            histogram.add(new UserStatisticsDto.AgeBucket(bucketMin, bucketMax, bucketCount));
+        }
+        return new UserStatisticsDto(count, minAge, maxAge, (double) ageSum / count, histogram);
+    }
+
+    private void scheduleReconcile() {
+        if (!reconcileScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            reconciler.execute(() -> {
+                try {
+                    reconcile();
+                } catch (RuntimeException exception) {
+                    logger.warn("Could not reconcile the stale user age statistics", exception);
+                } finally {
+                    reconcileScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            reconcileScheduled.set(false);
+        }
+    }
+
+    private static final class AgeCounts {
+        private final ConcurrentHashMap<Integer, LongAdder> usersByAge = new ConcurrentHashMap<>();
+
+        /**
+         * Applies a change, or returns {@code false} if the age it changes is unknown.
+         */
+        boolean apply(UserChangeEvent event) {
+            switch (event.type()) {
+                case SAVED -> add(event.age(), 1);
+                case UPDATED -> {
+                    if (event.previousAge() == null) {
+                        return false;
+                    }
+                    if (!event.previousAge().equals(event.age())) {
+                        add(event.previousAge(), -1);
+                        add(event.age(), 1);
+                    }
+                }
+                case DELETED -> {
+                    if (event.previousAge() == null) {
+                        return false;
+                    }
+                    add(event.previousAge(), -1);
+                }
+            }
+            return true;
+        }
+
+        void add(int age, long users) {
+            usersByAge.computeIfAbsent(age, key -> new LongAdder()).add(users);
+        }
+
+        long total() {
+            return usersByAge.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        TreeMap<Integer, Long> snapshot() {
+            TreeMap<Integer, Long> snapshot = new TreeMap<>();
+            usersByAge.forEach((age, users) -> {
+                long sum = users.sum();
+                if (sum > 0) {
+                    snapshot.put(age, sum);
+                }
+            });
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package edu.jl.springhateoas.writebehind;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.dto.user.UserWriteStatusDto;
+import edu.jl.springhateoas.entity.UserEntity;
+import edu.jl.springhateoas.event.UserChangeEvent;
+import edu.jl.springhateoas.exception.ResourceNotFoundException;
+import edu.jl.springhateoas.exception.TooManyRequestsException;
+import edu.jl.springhateoas.mapper.Mapper;
+import edu.jl.springhateoas.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind saves: users are given their id and queued, then inserted by a single background writer in
+ * batches of up to {@code app.write-behind.batch-size}, each with one statement. Saves are rejected with
+ * {@link TooManyRequestsException} while {@code app.write-behind.queue-capacity} users wait.
+ * <p>
+ * The status of a save is kept for {@code app.write-behind.status-ttl}; afterwards, a save is only known as
+ * written once its user exists. The lifecycle phase starts the writer before the web server and stops it after,
+ * so the queue is drained once no more saves can come in.
+ */
+@Component
+@ConditionalOnProperty(name = "app.write-behind.enabled", havingValue = "true")
+public class UserWriteBehindQueue implements SmartLifecycle {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserWriteBehindQueue.class);
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final Mapper mapper;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final BlockingQueue<UserEntity> queue;
+    private final Cache<UUID, UserWriteStatusDto> statuses;
+
+    private volatile boolean running;
+    // Saves check running and queue under the read lock, stopping clears it under the write lock: once the writer
+    // sees it cleared, no save can still be on its way into the queue
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+    private volatile Runnable stopCallback = () -> {
+    };
+    private Thread writer;
+
+    @Autowired
+    public UserWriteBehindQueue(
+            Mapper mapper,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${app.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.write-behind.batch-size:500}") int batchSize,
+            @Value("${app.write-behind.status-ttl:PT10M}") Duration statusTtl,
+            @Value("${app.write-behind.status-cache-size:100000}") long statusCacheSize) {
+        this.mapper = mapper;
+        this.userRepository = userRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(statusCacheSize)
+                .expireAfterWrite(statusTtl)
+                .build();
+        Gauge.builder("user.write.behind.queue.size", queue, BlockingQueue::size)
+                .description("Users waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a new user, returning its pending status.
+     */
+    public UserWriteStatusDto enqueue(UserRequestDto userRequest) {
+        UserEntity user = mapper.convertObject(userRequest, UserEntity.class);
+        user.setId(UUID.randomUUID());
+        user.setVersion(0L);
+        UserWriteStatusDto pending = UserWriteStatusDto.pending(user.getId());
+        runningLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new TooManyRequestsException("Saves are not accepted while the application shuts down!");
+            }
+            // Recorded first, so the writer can never be overtaken by it
+            statuses.put(user.getId(), pending);
+            if (!queue.offer(user)) {
+                statuses.invalidate(user.getId());
+                throw new TooManyRequestsException("Too many users are waiting to be saved, retry later!");
+            }
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        return pending;
+    }
+
+    public UserWriteStatusDto findStatus(UUID id) {
+        UserWriteStatusDto status = statuses.getIfPresent(id);
+        if (status != null) {
+            return status;
+        }
+        if (userRepository.existsById(id)) {
+            return UserWriteStatusDto.written(id);
+        }
+        throw new ResourceNotFoundException("Write of user with id " + id + " was not found!");
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("user-write-behind").start(this::write);
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stopCallback = callback;
+        stopAccepting();
+    }
+
+    @Override
+    public void stop() {
+        stopAccepting();
+        try {
+            writer.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void stopAccepting() {
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    private void write() {
+        List<UserEntity> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                UserEntity user = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (user == null) {
+                    continue;
+                }
+                batch.add(user);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException exception) {
+            LOGGER.warn("Write-behind writer interrupted with {} users queued", queue.size());
+            Thread.currentThread().interrupt();
+        } finally {
+            stopCallback.run();
+        }
+    }
+
+    private void flush(List<UserEntity> users) {
+        try {
+            transaction.executeWithoutResult(status -> {
+                userRepository.insertAll(users);
+                users.forEach(user -> eventPublisher.publishEvent(UserChangeEvent.saved(user)));
+            });
+            users.forEach(user -> statuses.put(user.getId(), UserWriteStatusDto.written(user.getId())));
+        } catch (RuntimeException exception) {
+            LOGGER.error("Failed to write {} queued users", users.size(), exception);
+            users.forEach(user -> statuses.put(user.getId(), UserWriteStatusDto.failed(user.getId(), exception.getMessage())));
+        }
+    }
+}
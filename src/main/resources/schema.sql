@@ -1,6 +1,28 @@
-CREATE TABLE users
+CREATE TABLE IF NOT EXISTS users
 (
     user_id UUID PRIMARY KEY,
     name    VARCHAR(255) NOT NULL,
-    age     INT          NOT NULL
-);
\ No newline at end of file
+    age     INT          NOT NULL,
+    version BIGINT       NOT NULL DEFAULT 0
+);
+
+-- Keyset pagination seeks and sorts on (name, user_id)
+CREATE INDEX IF NOT EXISTS users_name_user_id_idx ON users (name, user_id);
+
+-- Age-range filters seek on age, and their pages sorted by age then name read the index in order
+CREATE INDEX IF NOT EXISTS users_age_name_user_id_idx ON users (age, name, user_id);
+
+-- Substring name search narrows candidates down through the trigrams of the upper-cased names, kept by a trigger
+CREATE TABLE IF NOT EXISTS user_name_trigrams
+(
+    trigram CHAR(3) NOT NULL,
+    user_id UUID    NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
+    PRIMARY KEY (trigram, user_id)
+);
+CREATE INDEX IF NOT EXISTS user_name_trigrams_user_id_idx ON user_name_trigrams (user_id);
+CREATE TRIGGER IF NOT EXISTS users_name_trigrams AFTER INSERT, UPDATE ON users FOR EACH ROW CALL 'edu.jl.springhateoas.search.UserNameTrigramTrigger';
+
+-- The trigger only indexes the names written after it exists: index the users that have no trigrams yet, such as
+-- those of a database created before the search. Idempotent, so it runs on every start
+CREATE ALIAS IF NOT EXISTS backfill_user_name_trigrams FOR 'edu.jl.springhateoas.search.UserNameTrigramTrigger.backfill';
+CALL backfill_user_name_trigrams();
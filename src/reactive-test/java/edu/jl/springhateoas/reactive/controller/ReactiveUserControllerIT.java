@@ -0,0 +1,313 @@
+package edu.jl.springhateoas.reactive.controller;
+
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.mock.UserMock;
+import edu.jl.springhateoas.reactive.ReactiveUserApplication;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests for {@link ReactiveUserController}, each against a database of its own
+ */
+@SpringBootTest(
+        classes = ReactiveUserApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                ReactiveUserApplication.CONFIG_NAME,
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive-${random.uuid};DB_CLOSE_DELAY=-1"})
+class ReactiveUserControllerIT extends UserMock {
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+    }
+
+    @Test
+    @DisplayName("Should return 404 when user does not exist")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnNotFoundWhenUserDoesNotExist() {
+        given()
+                .when()
+                .get("/api/v1/users/{id}", nonExistentUserId.toString())
+                .then()
+                .statusCode(404)
+                .body("timestamp", notNullValue())
+                .body("details", equalTo("uri=/api/v1/users/" + nonExistentUserId))
+                .body("message", notNullValue());
+    }
+
+    @Test
+    @DisplayName("Should return user successfully with HATEOAS links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnUserWithHateoas() {
+        HashMap<String, String> links = createUserResponseLinks(userResponse.getId());
+        given()
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("id", equalTo(userResponse.getId().toString()))
+                .body("age", equalTo(userResponse.getAge()))
+                .body("name", equalTo(userResponse.getName()))
+                .body("_links.self.href", equalTo(links.get("self")))
+                .body("_links.create.href", equalTo(links.get("create")))
+                .body("_links.update.href", equalTo(links.get("update")))
+                .body("_links.delete.href", equalTo(links.get("delete")));
+    }
+
+    @Test
+    @DisplayName("Should update user only with the current version in If-Match")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUpdateUserOnlyWhenIfMatchIsCurrent() {
+        String eTag = given()
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        String updatedETag = given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", eTag)
+                .body(new UserRequestDto("Alicia", 40))
+                .when()
+                .put("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .body("name", equalTo("Alicia"))
+                .header("ETag", not(equalTo(eTag)))
+                .extract().header("ETag");
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", eTag)
+                .body(validUserRequest)
+                .when()
+                .put("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(412);
+
+        given()
+                .header("If-None-Match", updatedETag)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(304);
+    }
+
+    @Test
+    @DisplayName("Should return 404 when updating a user that does not exist")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnNotFoundWhenUpdatingUserThatDoesNotExist() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(validUserRequest)
+                .when()
+                .put("/api/v1/users/{id}", nonExistentUserId)
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @DisplayName("Should stream all users as NDJSON with HATEOAS links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldStreamUsersAsNdjsonWithLinks() {
+        String body = given()
+                .accept("application/x-ndjson")
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(totalUsersInDatabase);
+        lines.forEach(line -> {
+            UserResponseWithNameField_Links userDto = JsonPath.from(line)
+                    .getObject("$", UserResponseWithNameField_Links.class);
+            HashMap<String, String> links = createUserResponseLinks(userDto.id());
+            assertThat(userDto._links().get("self").toString()).isEqualTo("{href=" + links.get("self") + "}");
+            assertThat(userDto._links().get("delete").toString()).isEqualTo("{href=" + links.get("delete") + "}");
+        });
+    }
+
+    @Test
+    @DisplayName("Should return a list of users with HATEOAS links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnListOfUsersWithHateoasLinks() {
+        given()
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList", hasSize(totalUsersInDatabase))
+                .body("_links.self.href", equalTo(RestAssured.baseURI + ":" + port + "/api/v1/users?hateoas=true"));
+    }
+
+    @Test
+    @DisplayName("Should return a paginated list of users with HATEOAS links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnPaginatedUsersWithLinks() {
+        String uri = RestAssured.baseURI + ":" + port + "/api/v1/users/paged?name=&size=2&page=";
+        given()
+                .param("name", "")
+                .param("size", 2)
+                .param("page", 1)
+                .param("sort", "name,asc")
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList", hasSize(2))
+                .body("_embedded.userResponseDtoList[0]._links.self.href", notNullValue())
+                .body("_links.self.href", startsWith(uri + "1&sort="))
+                .body("_links.first.href", startsWith(uri + "0&sort="))
+                .body("_links.prev.href", startsWith(uri + "0&sort="))
+                .body("_links.next.href", startsWith(uri + "2&sort="))
+                .body("_links.last.href", startsWith(uri + "9&sort="))
+                .body("page.totalElements", equalTo(totalUsersInDatabase))
+                .body("page.totalPages", equalTo(totalUsersInDatabase / 2))
+                .body("page.number", equalTo(1));
+    }
+
+    @Test
+    @DisplayName("Should search users by a substring of their name")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldSearchUsersByNameSubstring() {
+        List<String> names = given()
+                .param("name", "lic")
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getList("_embedded.userResponseDtoList.name", String.class);
+
+        assertThat(names).isNotEmpty().allSatisfy(name -> assertThat(name).containsIgnoringCase("lic"));
+    }
+
+    @Test
+    @DisplayName("Should filter paged users by age range and name")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldFilterPagedUsersByAgeRange() {
+        given()
+                .param("name", "an")
+                .param("minAge", 26)
+                .param("maxAge", 28)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList.name", contains("Diana", "Hannah", "Nathan"))
+                .body("page.totalElements", equalTo(3));
+
+        given()
+                .param("minAge", 30)
+                .param("maxAge", 20)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @DisplayName("Should return 400 when sorting by an unknown property")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnBadRequestWhenSortIsUnknown() {
+        given()
+                .param("sort", "password")
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(400)
+                .body("message", notNullValue());
+    }
+
+    @Test
+    @DisplayName("Should save user with HATEOAS links and read it back")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldSaveUserWithHateoasLinks() {
+        String id = given()
+                .contentType(ContentType.JSON)
+                .body(validUserRequest)
+                .when()
+                .post("/api/v1/users?hateoas=true")
+                .then()
+                .statusCode(201)
+                .body("name", equalTo(validUserRequest.getName()))
+                .body("_links.self.href", notNullValue())
+                .extract().path("id");
+
+        given()
+                .when()
+                .get("/api/v1/users/{id}", UUID.fromString(id))
+                .then()
+                .statusCode(200)
+                .body("age", equalTo(validUserRequest.getAge()));
+    }
+
+    @Test
+    @DisplayName("Should return 400 when saving user with age below minimum")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnBadRequestWhenSavingUserWithAgeBelowMinimum() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(invalidRequestAgeBelowMinimum)
+                .when()
+                .post("/api/v1/users")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @DisplayName("Should delete user and return 404 on the second delete")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldDeleteUser() {
+        given()
+                .when()
+                .delete("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(204);
+
+        given()
+                .when()
+                .delete("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(404);
+    }
+
+    private HashMap<String, String> createUserResponseLinks(UUID userId) {
+        String baseUri = RestAssured.baseURI + ":" + port + "/api/v1/users";
+        String hateoasRequestParam = "?hateoas=true";
+        HashMap<String, String> links = new HashMap<>();
+        links.put("self", baseUri + "/" + userId + hateoasRequestParam);
+        links.put("update", baseUri + "/" + userId + hateoasRequestParam);
+        links.put("delete", baseUri + "/" + userId);
+        links.put("create", baseUri + hateoasRequestParam);
+        return links;
+    }
+}
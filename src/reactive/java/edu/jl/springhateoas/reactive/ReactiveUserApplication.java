@@ -0,0 +1,29 @@
+package edu.jl.springhateoas.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+import org.springframework.hateoas.support.WebStack;
+
+/**
+ * WebFlux + R2DBC variant of the user API, built with the {@code reactive} profile. It shares the classpath of
+ * the MVC application but none of its beans: it is configured by {@code reactive.properties} rather than
+ * {@code application.properties}, and talks to H2 over R2DBC only.
+ */
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
+@EnableHypermediaSupport(type = EnableHypermediaSupport.HypermediaType.HAL, stacks = WebStack.WEBFLUX)
+public class ReactiveUserApplication {
+    public static final String CONFIG_NAME = "spring.config.name=reactive";
+
+    public static void main(String[] args) {
+        application().run(args);
+    }
+
+    public static SpringApplicationBuilder application() {
+        return new SpringApplicationBuilder(ReactiveUserApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties(CONFIG_NAME);
+    }
+}
@@ -0,0 +1,41 @@
+package edu.jl.springhateoas.reactive.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+@Configuration
+public class ReactiveWebConfiguration implements WebFluxConfigurer {
+
+    /**
+     * Reactor Netty, which Spring Boot would otherwise pass over for the Tomcat the MVC application brings along.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * {@code Pageable} arguments from {@code page}, {@code size} and {@code sort}, like on MVC.
+     */
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new ReactivePageableHandlerMethodArgumentResolver());
+    }
+
+    /**
+     * Writes the users of NDJSON streams the same way as the HAL responses, like the {@code userResponseHalWriter}
+     * of the MVC application.
+     */
+    @Bean
+    public ObjectWriter userResponseHalWriter(ObjectMapper objectMapper, HalMediaTypeConfiguration halMediaTypeConfiguration) {
+        return halMediaTypeConfiguration.configureObjectMapper(objectMapper.copy()).writerFor(UserResponseDto.class);
+    }
+}
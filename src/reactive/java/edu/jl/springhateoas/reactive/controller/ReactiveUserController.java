@@ -0,0 +1,141 @@
+package edu.jl.springhateoas.reactive.controller;
+
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.exception.PreconditionFailedException;
+import edu.jl.springhateoas.reactive.service.ReactiveUserService;
+import edu.jl.springhateoas.search.UserSearch;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * The endpoints of {@code UserController} on WebFlux, with the same responses.
+ */
+@RestController
+@RequestMapping("/api/v1/users")
+public class ReactiveUserController {
+    private static final String HATEOAS_ETAG_SUFFIX = "-hateoas";
+
+    private final ReactiveUserService userService;
+
+    @Autowired
+    public ReactiveUserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserResponseDto>> findById(
+            @PathVariable(name = "id") UUID id,
+            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled,
+            ServerWebExchange exchange) {
+        return userService.findVersionById(id)
+                .flatMap(version -> exchange.checkNotModified(eTagOf(version, hateoasEnabled))
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<UserResponseDto>build())
+                        : userService.findById(id, hateoasEnabled).map(userResponse -> ResponseEntity
+                                .status(HttpStatus.OK)
+                                .eTag(eTagOf(userResponse.getVersion(), hateoasEnabled))
+                                .body(userResponse)));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<CollectionModel<UserResponseDto>>> findAll(
+            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled) {
+        return userService.findAll(hateoasEnabled).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<String> streamAll(@RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled) {
+        return userService.streamAll(hateoasEnabled);
+    }
+
+    @GetMapping("/paged")
+    public Mono<ResponseEntity<PagedModel<UserResponseDto>>> findByNameContainingIgnoreCase(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "minAge", required = false) Integer minAge,
+            @RequestParam(name = "maxAge", required = false) Integer maxAge,
+            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled,
+            @PageableDefault(
+                    size = 20,
+                    page = 0,
+                    direction = Sort.Direction.ASC,
+                    sort = {"name"})
+            Pageable pageable) {
+        return Mono.fromSupplier(() -> UserSearch.of(name, minAge, maxAge))
+                .flatMap(search -> userService.search(search, hateoasEnabled, pageable))
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<UserResponseDto>> save(
+            @Valid @RequestBody Mono<UserRequestDto> userRequestDto,
+            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled) {
+        return userRequestDto
+                .flatMap(userRequest -> userService.save(userRequest, hateoasEnabled))
+                .map(savedUser -> ResponseEntity.status(HttpStatus.CREATED).body(savedUser));
+    }
+
+    @PutMapping(value = "/{id}")
+    public Mono<ResponseEntity<UserResponseDto>> update(
+            @PathVariable(name = "id") UUID id,
+            @RequestBody @Valid Mono<UserRequestDto> userUpdate,
+            @RequestParam(name = "hateoas", defaultValue = "false") Boolean hateoasEnabled,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return userUpdate
+                .flatMap(userRequest -> userService.update(id, userRequest, hateoasEnabled, versionOf(ifMatch)))
+                .map(updatedUser -> ResponseEntity
+                        .ok()
+                        .eTag(eTagOf(updatedUser.getVersion(), hateoasEnabled))
+                        .body(updatedUser));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable(name = "id") UUID id) {
+        return userService.delete(id)
+                .then(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.NO_CONTENT).<Void>build()));
+    }
+
+    /**
+     * Strong ETag of a user: its entity version, told apart by whether the representation carries links.
+     */
+    private static String eTagOf(Long version, boolean hateoasEnabled) {
+        return "\"" + version + (hateoasEnabled ? HATEOAS_ETAG_SUFFIX : "") + "\"";
+    }
+
+    /**
+     * Version a conditional update expects, or {@code null} for an unconditional one. Anything that is not a
+     * strong ETag of ours can never match.
+     */
+    private static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        try {
+            if (eTag.length() < 2 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+                throw new NumberFormatException(eTag);
+            }
+            eTag = eTag.substring(1, eTag.length() - 1);
+            if (eTag.endsWith(HATEOAS_ETAG_SUFFIX)) {
+                eTag = eTag.substring(0, eTag.length() - HATEOAS_ETAG_SUFFIX.length());
+            }
+            return Long.parseLong(eTag);
+        } catch (NumberFormatException exception) {
+            throw new PreconditionFailedException("If-Match " + ifMatch + " does not match any version of the user!");
+        }
+    }
+}
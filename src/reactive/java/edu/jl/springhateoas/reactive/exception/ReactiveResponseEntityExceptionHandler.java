@@ -0,0 +1,46 @@
+package edu.jl.springhateoas.reactive.exception;
+
+import edu.jl.springhateoas.dto.exception.ExceptionResponseDto;
+import edu.jl.springhateoas.exception.BadRequestException;
+import edu.jl.springhateoas.exception.PreconditionFailedException;
+import edu.jl.springhateoas.exception.ResourceNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.Date;
+
+/**
+ * The error responses of {@code CustomizedResponseEntityExceptionHandler} on WebFlux.
+ */
+@RestControllerAdvice
+public class ReactiveResponseEntityExceptionHandler {
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ExceptionResponseDto> handlerResourceNotFoundException(ServerWebExchange exchange, ResourceNotFoundException resourceNotFoundException) {
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(buildResponseDto(exchange, resourceNotFoundException));
+    }
+
+    @ExceptionHandler({BadRequestException.class, ServerWebInputException.class})
+    public ResponseEntity<ExceptionResponseDto> handlerBadRequestException(ServerWebExchange exchange, RuntimeException badRequestException) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(buildResponseDto(exchange, badRequestException));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ExceptionResponseDto> handlerPreconditionFailedException(ServerWebExchange exchange, PreconditionFailedException preconditionFailedException) {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(buildResponseDto(exchange, preconditionFailedException));
+    }
+
+    private ExceptionResponseDto buildResponseDto(ServerWebExchange exchange, Exception exception) {
+        return new ExceptionResponseDto(new Date(), "uri=" + exchange.getRequest().getPath().value(), exception.getMessage());
+    }
+}
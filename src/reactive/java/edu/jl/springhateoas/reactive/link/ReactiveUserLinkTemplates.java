@@ -0,0 +1,103 @@
+package edu.jl.springhateoas.reactive.link;
+
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.reactive.controller.ReactiveUserController;
+import org.springframework.data.domain.Page;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.reactive.ServerWebExchangeContextFilter;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.methodOn;
+
+/**
+ * Builds the HATEOAS links of the user resources, with the same relations and hrefs as {@code UserLinkTemplates}.
+ * <p>
+ * The {@link ReactiveUserController} mappings are resolved with {@code WebFluxLinkBuilder} against the request
+ * carried by the Reactor context, once per request, into templates; the links of each user then only expand
+ * its id into them.
+ */
+@Component
+public class ReactiveUserLinkTemplates {
+    private static final LinkRelation CREATE = LinkRelation.of("create");
+    private static final LinkRelation DELETE = LinkRelation.of("delete");
+    private static final LinkRelation UPDATE = LinkRelation.of("update");
+
+    /**
+     * Emits a function adding the {@code self}, {@code create}, {@code delete} and {@code update} links to a user.
+     */
+    public Mono<Function<UserResponseDto, UserResponseDto>> forCurrentRequest() {
+        return Mono.zip(
+                        linkTo(methodOn(ReactiveUserController.class).findById(null, true, null)).withSelfRel().toMono(),
+                        linkTo(methodOn(ReactiveUserController.class).save(null, true)).withRel(CREATE).toMono(),
+                        linkTo(methodOn(ReactiveUserController.class).delete(null)).withRel(DELETE).toMono())
+                .map(templates -> {
+                    Link selfTemplate = templates.getT1();
+                    Link createLink = templates.getT2();
+                    Link deleteTemplate = templates.getT3();
+                    return userResponseDto -> {
+                        Map<String, Object> id = Map.of("id", userResponseDto.getId());
+                        return userResponseDto.add(
+                                selfTemplate.expand(id),
+                                createLink,
+                                deleteTemplate.expand(id),
+                                selfTemplate.expand(id).withRel(UPDATE));
+                    };
+                });
+    }
+
+    public Mono<CollectionModel<UserResponseDto>> applyCollectionLinks(List<UserResponseDto> users) {
+        return linkTo(methodOn(ReactiveUserController.class).findAll(true)).withSelfRel().toMono()
+                .map(selfLink -> CollectionModel.of(users, selfLink));
+    }
+
+    /**
+     * Wraps a page with the {@code self}, {@code first}, {@code last} and, when present, {@code next} and
+     * {@code prev} links, built from the current request like the MVC ones.
+     */
+    public Mono<PagedModel<UserResponseDto>> applyPageLinks(Page<UserResponseDto> page) {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(ServerWebExchangeContextFilter.getExchange(context)))
+                .map(ServerWebExchange::getRequest)
+                .map(request -> {
+                    int size = page.getSize(), number = page.getNumber();
+                    UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUri(request.getURI());
+                    String name = request.getQueryParams().getFirst("name");
+                    String sort = request.getQueryParams().getFirst("sort");
+                    Function<Integer, String> buildOrderedUri = pageNumber -> uriBuilder.cloneBuilder()
+                            .replaceQueryParam("name", name)
+                            .replaceQueryParam("size", size)
+                            .replaceQueryParam("page", pageNumber)
+                            .replaceQueryParam("sort", sort)
+                            .replaceQueryParam("hateoas", "true")
+                            .toUriString();
+
+                    int lastPage = Math.max((int) Math.ceil((double) page.getTotalElements() / size) - 1, 0);
+                    List<Link> links = new ArrayList<>();
+                    links.add(Link.of(buildOrderedUri.apply(number)).withSelfRel());
+                    links.add(Link.of(buildOrderedUri.apply(0)).withRel(IanaLinkRelations.FIRST));
+                    links.add(Link.of(buildOrderedUri.apply(lastPage)).withRel(IanaLinkRelations.LAST));
+                    if (number < lastPage) {
+                        links.add(Link.of(buildOrderedUri.apply(number + 1)).withRel(IanaLinkRelations.NEXT));
+                    }
+                    if (number > 0) {
+                        links.add(Link.of(buildOrderedUri.apply(number - 1)).withRel(IanaLinkRelations.PREV));
+                    }
+                    return PagedModel.of(
+                            page.getContent(),
+                            new PagedModel.PageMetadata(size, number, page.getTotalElements(), lastPage + 1),
+                            links);
+                });
+    }
+}
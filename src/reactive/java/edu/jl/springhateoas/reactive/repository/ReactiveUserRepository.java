@@ -0,0 +1,180 @@
+package edu.jl.springhateoas.reactive.repository;
+
+import edu.jl.springhateoas.entity.UserEntity;
+import edu.jl.springhateoas.exception.BadRequestException;
+import edu.jl.springhateoas.search.Trigrams;
+import edu.jl.springhateoas.search.UserSearch;
+import io.r2dbc.spi.Readable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The users table through R2DBC, with the statements of {@code UserRepository}: the search narrows name
+ * candidates down through the trigram index like {@code UserSpecifications.matching}, and updates read the new
+ * version back with {@code FINAL TABLE}.
+ */
+@Repository
+public class ReactiveUserRepository {
+    private static final String COLUMNS = "user_id, name, age, version";
+    private static final Map<String, String> SORT_COLUMNS = Map.of("id", "user_id", "name", "name", "age", "age");
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<UserEntity> findById(UUID id) {
+        return databaseClient.sql("select " + COLUMNS + " from users where user_id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(UUID id) {
+        return databaseClient.sql("select 1 from users where user_id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    public Flux<UserEntity> findAll() {
+        return databaseClient.sql("select " + COLUMNS + " from users")
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Flux<UserEntity> findAll(UserSearch search, Pageable pageable) {
+        SearchFilter filter = SearchFilter.of(search);
+        return filter.bind(databaseClient.sql("select " + COLUMNS + " from users" + filter.where() + orderBy(pageable.getSort())
+                        + " limit :limit offset :offset"))
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Mono<Long> count(UserSearch search) {
+        SearchFilter filter = SearchFilter.of(search);
+        return filter.bind(databaseClient.sql("select count(*) from users" + filter.where()))
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<UserEntity> insert(UserEntity user) {
+        return databaseClient.sql("insert into users (" + COLUMNS + ") values (:id, :name, :age, :version)")
+                .bind("id", user.getId())
+                .bind("name", user.getName())
+                .bind("age", user.getAge())
+                .bind("version", user.getVersion())
+                .then()
+                .thenReturn(user);
+    }
+
+    /**
+     * Like {@code UserRepository.updateById}: the new version, or nothing if there is no user with the given id
+     * at the expected version. A {@code null} expected version matches any.
+     */
+    public Mono<Long> updateById(UUID id, String name, Integer age, Long expectedVersion) {
+        DatabaseClient.GenericExecuteSpec update = databaseClient.sql("""
+                        select version from final table (
+                            update users set name = :name, age = :age, version = version + 1
+                            where user_id = :id and version = coalesce(:expectedVersion, version))""")
+                .bind("id", id)
+                .bind("name", name)
+                .bind("age", age);
+        update = expectedVersion == null
+                ? update.bindNull("expectedVersion", Long.class)
+                : update.bind("expectedVersion", expectedVersion);
+        return update.map(row -> row.get("version", Long.class)).one();
+    }
+
+    public Mono<Long> deleteById(UUID id) {
+        return databaseClient.sql("delete from users where user_id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        return sort.stream()
+                .map(order -> {
+                    String column = SORT_COLUMNS.get(order.getProperty());
+                    if (column == null) {
+                        throw new BadRequestException("Users cannot be sorted by " + order.getProperty() + "!");
+                    }
+                    return column + (order.isAscending() ? " asc" : " desc");
+                })
+                .collect(Collectors.joining(", ", " order by ", ""));
+    }
+
+    private static UserEntity toUser(Readable row) {
+        UserEntity user = new UserEntity(row.get("user_id", UUID.class), row.get("name", String.class), row.get("age", Integer.class));
+        user.setVersion(row.get("version", Long.class));
+        return user;
+    }
+
+    /**
+     * Where clause of a search. The name matches every user for an empty term, with a plain {@code LIKE} below
+     * three characters, and otherwise for the users having every trigram of the term as well. Each bound of the
+     * age range is a condition of its own.
+     */
+    private record SearchFilter(String pattern, Set<String> trigrams, Integer minAge, Integer maxAge) {
+
+        static SearchFilter of(UserSearch search) {
+            if (search.name().isEmpty()) {
+                return new SearchFilter(null, Set.of(), search.minAge(), search.maxAge());
+            }
+            return new SearchFilter(Trigrams.containsPattern(search.name()), Trigrams.of(search.name()), search.minAge(), search.maxAge());
+        }
+
+        String where() {
+            List<String> conditions = new ArrayList<>(4);
+            if (pattern != null) {
+                conditions.add("upper(name) like :pattern escape '" + Trigrams.LIKE_ESCAPE + "'");
+                if (!trigrams.isEmpty()) {
+                    conditions.add("user_id in (select user_id from user_name_trigrams where trigram in (:trigrams)"
+                            + " group by user_id having count(*) = :trigramCount)");
+                }
+            }
+            if (minAge != null) {
+                conditions.add("age >= :minAge");
+            }
+            if (maxAge != null) {
+                conditions.add("age <= :maxAge");
+            }
+            return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+        }
+
+        DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+            if (pattern != null) {
+                spec = spec.bind("pattern", pattern);
+                if (!trigrams.isEmpty()) {
+                    spec = spec.bind("trigrams", trigrams).bind("trigramCount", (long) trigrams.size());
+                }
+            }
+            if (minAge != null) {
+                spec = spec.bind("minAge", minAge);
+            }
+            if (maxAge != null) {
+                spec = spec.bind("maxAge", maxAge);
+            }
+            return spec;
+        }
+    }
+}
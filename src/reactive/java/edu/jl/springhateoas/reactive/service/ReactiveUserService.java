@@ -0,0 +1,29 @@
+package edu.jl.springhateoas.reactive.service;
+
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.search.UserSearch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * The {@code UserService} contract, non-blocking.
+ */
+public interface ReactiveUserService {
+    Mono<UserResponseDto> findById(UUID id, Boolean hateoasEnabled);
+    Mono<Long> findVersionById(UUID id);
+    Mono<UserResponseDto> save(UserRequestDto userRequestDto, Boolean hateoasEnabled);
+
+    Mono<CollectionModel<UserResponseDto>> findAll(Boolean hateoasEnabled);
+    Flux<String> streamAll(Boolean hateoasEnabled);
+    Mono<PagedModel<UserResponseDto>> search(UserSearch search, Boolean hateoasEnabled, Pageable pageable);
+
+    Mono<UserResponseDto> update(UUID id, UserRequestDto userUpdate, Boolean hateoasEnabled, Long expectedVersion);
+
+    Mono<Void> delete(UUID id);
+}
@@ -0,0 +1,170 @@
+package edu.jl.springhateoas.reactive.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.entity.UserEntity;
+import edu.jl.springhateoas.exception.PreconditionFailedException;
+import edu.jl.springhateoas.exception.ResourceNotFoundException;
+import edu.jl.springhateoas.reactive.link.ReactiveUserLinkTemplates;
+import edu.jl.springhateoas.reactive.repository.ReactiveUserRepository;
+import edu.jl.springhateoas.reactive.service.ReactiveUserService;
+import edu.jl.springhateoas.search.UserSearch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class ReactiveUserServiceImplementation implements ReactiveUserService {
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveUserLinkTemplates userLinkTemplates;
+    private final ObjectWriter userResponseHalWriter;
+
+    @Autowired
+    public ReactiveUserServiceImplementation(
+            ReactiveUserRepository userRepository,
+            ReactiveUserLinkTemplates userLinkTemplates,
+            ObjectWriter userResponseHalWriter) {
+        this.userRepository = userRepository;
+        this.userLinkTemplates = userLinkTemplates;
+        this.userResponseHalWriter = userResponseHalWriter;
+    }
+
+    @Override
+    public Mono<UserResponseDto> findById(UUID id, Boolean hateoasEnabled) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User with id " + id + " was not found!")))
+                .map(ReactiveUserServiceImplementation::toUserResponse)
+                .flatMap(userResponse -> applyLinks(userResponse, hateoasEnabled));
+    }
+
+    @Override
+    public Mono<Long> findVersionById(UUID id) {
+        return userRepository.findById(id)
+                .map(UserEntity::getVersion)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User with id " + id + " was not found!")));
+    }
+
+    /**
+     * Inserts the user with an id generated here, so it is known without reading the user back.
+     */
+    @Override
+    public Mono<UserResponseDto> save(UserRequestDto userRequestDto, Boolean hateoasEnabled) {
+        UserEntity userToSave = new UserEntity(UUID.randomUUID(), userRequestDto.getName(), userRequestDto.getAge());
+        userToSave.setVersion(0L);
+        return userRepository.insert(userToSave)
+                .map(ReactiveUserServiceImplementation::toUserResponse)
+                .flatMap(userResponse -> applyLinks(userResponse, hateoasEnabled));
+    }
+
+    @Override
+    public Mono<CollectionModel<UserResponseDto>> findAll(Boolean hateoasEnabled) {
+        Mono<List<UserResponseDto>> userResponses = withLinks(userRepository.findAll(), hateoasEnabled).collectList();
+        return hateoasEnabled
+                ? userResponses.flatMap(userLinkTemplates::applyCollectionLinks)
+                : userResponses.map(CollectionModel::of);
+    }
+
+    /**
+     * Streams every user as a line of HAL JSON as soon as it is read, without collecting them first.
+     */
+    @Override
+    public Flux<String> streamAll(Boolean hateoasEnabled) {
+        return withLinks(userRepository.findAll(), hateoasEnabled).handle((userResponse, sink) -> {
+            try {
+                sink.next(userResponseHalWriter.writeValueAsString(userResponse) + "\n");
+            } catch (JsonProcessingException exception) {
+                sink.error(exception);
+            }
+        });
+    }
+
+    /**
+     * Pages through the users whose name contains the given one, within the age range if any. Like
+     * {@code PageableExecutionUtils}, the total is only counted when the page does not tell it.
+     */
+    @Override
+    public Mono<PagedModel<UserResponseDto>> search(UserSearch search, Boolean hateoasEnabled, Pageable pageable) {
+        Mono<Page<UserResponseDto>> paginatedUserResponses = withLinks(userRepository.findAll(search, pageable), hateoasEnabled)
+                .collectList()
+                .flatMap(userResponses -> {
+                    if (pageable.getOffset() == 0 && userResponses.size() < pageable.getPageSize()) {
+                        return Mono.just(new PageImpl<>(userResponses, pageable, userResponses.size()));
+                    }
+                    if (!userResponses.isEmpty() && userResponses.size() < pageable.getPageSize()) {
+                        return Mono.just(new PageImpl<>(userResponses, pageable, pageable.getOffset() + userResponses.size()));
+                    }
+                    return userRepository.count(search)
+                            .map(total -> new PageImpl<>(userResponses, pageable, total));
+                });
+        if (hateoasEnabled) {
+            return paginatedUserResponses.flatMap(userLinkTemplates::applyPageLinks);
+        }
+        return paginatedUserResponses.map(page -> PagedModel.of(
+                page.getContent(),
+                new PagedModel.PageMetadata(page.getSize(), page.getNumber(), page.getTotalElements(), page.getTotalPages())));
+    }
+
+    /**
+     * Updates the user with a single statement and builds the response from the update itself. Only a failed
+     * update looks the user up, to tell a missing user from a stale version.
+     */
+    @Override
+    @Transactional
+    public Mono<UserResponseDto> update(UUID id, UserRequestDto userUpdate, Boolean hateoasEnabled, Long expectedVersion) {
+        return userRepository.updateById(id, userUpdate.getName(), userUpdate.getAge(), expectedVersion)
+                .switchIfEmpty(Mono.defer(() -> (expectedVersion != null ? userRepository.existsById(id) : Mono.just(false))
+                        .flatMap(exists -> Mono.error(exists
+                                ? new PreconditionFailedException("User with id " + id + " was modified since version " + expectedVersion + "!")
+                                : new ResourceNotFoundException("User with id " + id + " was not found!")))))
+                .map(updatedVersion -> {
+                    UserResponseDto updatedUserResponse = new UserResponseDto(id, userUpdate.getName(), userUpdate.getAge());
+                    updatedUserResponse.setVersion(updatedVersion);
+                    return updatedUserResponse;
+                })
+                .flatMap(userResponse -> applyLinks(userResponse, hateoasEnabled));
+    }
+
+    @Override
+    public Mono<Void> delete(UUID id) {
+        return userRepository.deleteById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new ResourceNotFoundException("User with id " + id + " was not found!"))
+                        : Mono.empty());
+    }
+
+    private Mono<UserResponseDto> applyLinks(UserResponseDto userResponse, boolean hateoasEnabled) {
+        return hateoasEnabled
+                ? userLinkTemplates.forCurrentRequest().map(linksApplier -> linksApplier.apply(userResponse))
+                : Mono.just(userResponse);
+    }
+
+    /**
+     * Maps the users to responses, with their links resolved once for the whole flux.
+     */
+    private Flux<UserResponseDto> withLinks(Flux<UserEntity> users, boolean hateoasEnabled) {
+        Flux<UserResponseDto> userResponses = users.map(ReactiveUserServiceImplementation::toUserResponse);
+        if (!hateoasEnabled) {
+            return userResponses;
+        }
+        return userLinkTemplates.forCurrentRequest()
+                .flatMapMany(linksApplier -> userResponses.map(linksApplier));
+    }
+
+    private static UserResponseDto toUserResponse(UserEntity user) {
+        UserResponseDto userResponse = new UserResponseDto(user.getId(), user.getName(), user.getAge());
+        userResponse.setVersion(user.getVersion());
+        return userResponse;
+    }
+}
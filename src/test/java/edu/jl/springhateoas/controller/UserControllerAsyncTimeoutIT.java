@@ -0,0 +1,61 @@
+package edu.jl.springhateoas.controller;
+
+import edu.jl.springhateoas.mock.UserMock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the timeouts that the long-running endpoints of {@link UserController} set for themselves,
+ * here a short one for the imports.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"app.import.timeout=500ms", "spring.datasource.url=jdbc:h2:mem:async-timeout"})
+class UserControllerAsyncTimeoutIT extends UserMock {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("Should answer 503 to an import that outlives its own timeout")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldTimeOutImport() throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout((int) Duration.ofSeconds(10).toMillis());
+            OutputStream request = socket.getOutputStream();
+            // The body is never finished, so the import waits for rows until its timeout
+            request.write("""
+                    POST /api/v1/users/import HTTP/1.1\r
+                    Host: localhost\r
+                    Content-Type: text/csv\r
+                    Transfer-Encoding: chunked\r
+                    \r
+                    9\r
+                    name,age
+                    \r
+                    """.getBytes(StandardCharsets.US_ASCII));
+            request.flush();
+            Instant sent = Instant.now();
+
+            String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+
+            assertThat(statusLine).startsWith("HTTP/1.1 503");
+            assertThat(Duration.between(sent, Instant.now())).isLessThan(Duration.ofSeconds(5));
+        }
+    }
+}
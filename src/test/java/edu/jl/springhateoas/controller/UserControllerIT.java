@@ -1,19 +1,42 @@
 package edu.jl.springhateoas.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import edu.jl.springhateoas.dto.user.UserBatchUpdateRequestDto;
+import edu.jl.springhateoas.dto.user.UserRequestDto;
 import edu.jl.springhateoas.dto.user.UserResponseDto;
 import edu.jl.springhateoas.mock.UserMock;
+import edu.jl.springhateoas.repository.UserRepository;
+import edu.jl.springhateoas.service.UserService;
 import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static io.restassured.RestAssured.given;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,181 +52,1126 @@ class UserControllerIT extends UserMock {
     @LocalServerPort
     private int port;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @BeforeEach
     void setup() {
         RestAssured.port = port;
     }
 
     @Test
-    @DisplayName("Should return 404 when user does not exist")
+    @DisplayName("Should return 404 when user does not exist")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnNotFoundWhenUserDoesNotExist() {
+        given()
+                .contentType(ContentType.JSON)
+                .when()
+                .get("/api/v1/users/{id}", nonExistentUserId.toString())
+                .then()
+                .statusCode(404)
+                .body("timestamp", notNullValue())
+                .body("details", notNullValue())
+                .body("message", notNullValue());
+    }
+
+    @Test
+    @DisplayName("Should return user successfully without HATEOAS links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnUserWithoutHateoas() {
+        given()
+                .contentType(ContentType.JSON)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .body("id", equalTo(userResponse.getId().toString()))
+                .body("age", equalTo(userResponse.getAge()))
+                .body("name", equalTo(userResponse.getName()))
+                .body("$", not(hasKey("_links")));  // Verifying that the "_links" field does not exist
+    }
+
+    @Test
+    @DisplayName("Should return user successfully with HATEOAS links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnUserWithHateoas() {
+        HashMap<String, String> links = createUserResponseLinks(userResponse.getId());
+        given()
+                .contentType(ContentType.JSON)
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .body("id", equalTo(userResponse.getId().toString()))
+                .body("age", equalTo(userResponse.getAge()))
+                .body("name", equalTo(userResponse.getName()))
+                .body("_links.self.href", equalTo(links.get("self")))
+                .body("_links.create.href", equalTo(links.get("create")))
+                .body("_links.update.href", equalTo(links.get("update")))
+                .body("_links.delete.href", equalTo(links.get("delete")));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads of a user from the cache")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldServeRepeatedReadsFromCache() {
+        for (int i = 0; i < 3; i++) {
+            given()
+                    .when()
+                    .get("/api/v1/users/{id}", userResponse.getId())
+                    .then()
+                    .statusCode(200)
+                    .body("name", equalTo(userResponse.getName()));
+        }
+
+        given()
+                .param("tag", "cache:users", "result:miss")
+                .when()
+                .get("/actuator/metrics/cache.gets")
+                .then()
+                .statusCode(200)
+                .body("measurements[0].value", equalTo(1.0f));
+    }
+
+    @Test
+    @DisplayName("Should return the updated user after an update of a cached user")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnUpdatedUserAfterUpdatingCachedUser() {
+        given().when().get("/api/v1/users/{id}", userResponse.getId()).then().statusCode(200);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(new UserRequestDto("Alicia", 40))
+                .when()
+                .put("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200);
+
+        given()
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .body("name", equalTo("Alicia"))
+                .body("age", equalTo(40));
+
+        given().when().delete("/api/v1/users/{id}", userResponse.getId()).then().statusCode(204);
+
+        given().when().get("/api/v1/users/{id}", userResponse.getId()).then().statusCode(404);
+    }
+
+    @Test
+    @DisplayName("Should return 304 Not Modified when the user ETag still matches")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnNotModifiedWhenUserETagMatches() {
+        String eTag = given()
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", eTag)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(304)
+                .body(is(emptyOrNullString()));
+
+        given()
+                .header("If-None-Match", eTag)
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @DisplayName("Should update a user only while its If-Match ETag is current")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUpdateUserOnlyWhenIfMatchIsCurrent() {
+        String eTag = given()
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        String updatedETag = given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", eTag)
+                .body(new UserRequestDto("Alicia", 40))
+                .when()
+                .put("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(eTag)))
+                .extract().header("ETag");
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", eTag)
+                .body(validUserRequest)
+                .when()
+                .put("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(412);
+
+        given()
+                .header("If-None-Match", updatedETag)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(304);
+    }
+
+    @Test
+    @DisplayName("Should return 404, not 412, to a conditional update of a missing user")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnNotFoundToConditionalUpdateOfMissingUser() {
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", "\"0\"")
+                .body(validUserRequest)
+                .when()
+                .put("/api/v1/users/{id}", nonExistentUserId)
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @DisplayName("Should update a user without If-Match, returning the version it persisted")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUpdateUserUnconditionally() {
+        long version = persistedVersionOf(userResponse.getId());
+
+        for (int update = 1; update <= 2; update++) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(new UserRequestDto("Alicia", 40 + update))
+                    .when()
+                    .put("/api/v1/users/{id}", userResponse.getId())
+                    .then()
+                    .statusCode(200)
+                    .header("ETag", equalTo("\"" + (version + update) + "\""))
+                    .body("age", equalTo(40 + update));
+
+            assertThat(persistedVersionOf(userResponse.getId())).isEqualTo(version + update);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT age FROM users WHERE user_id = ?", Integer.class, userResponse.getId()))
+                .isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Should evict a user from the users cache once it is updated or deleted")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldEvictUpdatedAndDeletedUsersFromCache() {
+        Cache users = cacheManager.getCache(UserRepository.USERS_CACHE);
+        given().when().get("/api/v1/users/{id}", userResponse.getId()).then().statusCode(200);
+        assertThat(users.get(userResponse.getId())).isNotNull();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(new UserRequestDto("Alicia", 40))
+                .when()
+                .put("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200);
+        assertThat(users.get(userResponse.getId())).isNull();
+
+        given().when().get("/api/v1/users/{id}", userResponse.getId()).then().statusCode(200).body("name", equalTo("Alicia"));
+        assertThat(users.get(userResponse.getId())).isNotNull();
+
+        given().when().delete("/api/v1/users/{id}", userResponse.getId()).then().statusCode(204);
+        assertThat(users.get(userResponse.getId())).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE user_id = ?", Long.class, userResponse.getId()))
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Should not keep serving a user read while its update was being committed")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldNotCacheUserReadDuringItsUpdate() {
+        String eTag = given()
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.update(userResponse.getId(), new UserRequestDto("Alicia", 40), false, null);
+            given()
+                    .when()
+                    .get("/api/v1/users/{id}", userResponse.getId())
+                    .then()
+                    .statusCode(200)
+                    .header("ETag", equalTo(eTag))
+                    .body("name", equalTo(userResponse.getName()));
+        });
+
+        given()
+                .header("If-None-Match", eTag)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(eTag)))
+                .body("name", equalTo("Alicia"))
+                .body("age", equalTo(40));
+    }
+
+    @Test
+    @DisplayName("Should return 304 Not Modified when the paged users did not change")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnNotModifiedWhenPagedUsersETagMatches() {
+        String eTag = given()
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", eTag)
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(304);
+    }
+
+    @Test
+    @DisplayName("Should return a list of users successfully with HATEOAS links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnListOfUsersWithHateoasLinks() {
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList", hasSize(20))
+                .body("_links.self.href", equalTo(RestAssured.baseURI + ":" + port + "/api/v1/users?hateoas=true"))
+                .extract().response();
+
+        List<UserResponseWithNameField_Links> userList = response.jsonPath().getList("_embedded.userResponseDtoList", UserResponseWithNameField_Links.class);
+
+        userList.forEach(userDto -> {
+            HashMap<String, String> links = createUserResponseLinks(userDto.id());
+            assertThat(userDto._links().get("self").toString()).isEqualTo("{href=" + links.get("self") + "}");
+            assertThat(userDto._links().get("create").toString()).isEqualTo("{href=" + links.get("create") + "}");
+            assertThat(userDto._links().get("update").toString()).isEqualTo("{href=" + links.get("update") + "}");
+            assertThat(userDto._links().get("delete").toString()).isEqualTo("{href=" + links.get("delete") + "}");
+        });
+    }
+
+    @Test
+    @DisplayName("Should return users without HATEOAS links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnUsersWithoutLinks() {
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .when()
+                .get("/api/v1/users")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList", hasSize(20))
+                .body("_embedded", not(hasKey("_links")))
+                .extract().response();
+
+        List<UserResponseDto> userList = response.jsonPath().getList("_embedded.userResponseDtoList", UserResponseDto.class);
+        userList.forEach(userDto -> {
+            assertThat(userDto.getLinks()).hasSize(0);
+        });
+    }
+
+    @Test
+    @DisplayName("Should stream all users as NDJSON without HATEOAS links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldStreamUsersAsNdjsonWithoutLinks() {
+        String body = given()
+                .accept("application/x-ndjson")
+                .when()
+                .get("/api/v1/users")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(totalUsersInDatabase);
+        lines.forEach(line -> assertThat(line).contains("\"id\"").doesNotContain("_links"));
+    }
+
+    @Test
+    @DisplayName("Should export every user as CSV with a header line")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldExportUsersAsCsv() {
+        given().contentType(ContentType.JSON).body(new UserRequestDto("Smith, \"Jr\"", 40)).when().post("/api/v1/users").then().statusCode(201);
+
+        String body = given()
+                .param("format", "csv")
+                .when()
+                .get("/api/v1/users/export")
+                .then()
+                .statusCode(200)
+                .contentType("text/csv")
+                .header("Content-Disposition", containsString("users.csv"))
+                .extract().asString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(totalUsersInDatabase + 2);
+        assertThat(lines.get(0)).isEqualTo("id,name,age");
+        assertThat(lines).contains(userResponse.getId() + ",Alice,25");
+        assertThat(lines).anySatisfy(line -> assertThat(line).endsWith(",\"Smith, \"\"Jr\"\"\",40"));
+    }
+
+    @Test
+    @DisplayName("Should export every user as NDJSON without HATEOAS links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldExportUsersAsNdjson() {
+        String body = given()
+                .param("format", "ndjson")
+                .when()
+                .get("/api/v1/users/export")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+
+        List<UserResponseDto> users = body.lines()
+                .map(line -> JsonPath.from(line).getObject("$", UserResponseDto.class))
+                .toList();
+        assertThat(users).hasSize(totalUsersInDatabase);
+        assertThat(users).extracting(UserResponseDto::getId).doesNotHaveDuplicates().contains(userResponse.getId());
+        assertThat(body).doesNotContain("_links");
+    }
+
+    @Test
+    @DisplayName("Should return 400 BadRequest when exporting in an unknown format")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnBadRequestWhenExportFormatIsUnknown() {
+        given()
+                .param("format", "xml")
+                .when()
+                .get("/api/v1/users/export")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @DisplayName("Should import the valid rows of a CSV body and report the others by line")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldImportUsersFromCsv() {
+        String body = given()
+                .contentType("text/csv")
+                .body("name,age\n"
+                        + "Zoe,40\n"
+                        + "Kid,12\n"
+                        + "\"Smith,\nJr\",50\n"
+                        + "Nobody,abc\n"
+                        + "\n"
+                        + "A".repeat(300) + ",30\n")
+                .when()
+                .post("/api/v1/users/import")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+
+        List<JsonPath> reports = body.lines().map(JsonPath::from).toList();
+        JsonPath summary = reports.get(reports.size() - 1);
+        assertThat(summary.getBoolean("done")).isTrue();
+        assertThat(summary.getLong("read")).isEqualTo(5);
+        assertThat(summary.getLong("imported")).isEqualTo(2);
+        assertThat(summary.getLong("failed")).isEqualTo(3);
+        assertThat(reports).filteredOn(report -> report.get("message") != null)
+                .extracting(report -> report.getInt("line"))
+                .containsExactlyInAnyOrder(3, 6, 8);
+        assertThat(reports).filteredOn(report -> report.get("done") != null).hasSizeGreaterThan(1);
+
+        given()
+                .param("name", "smith")
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList.name", contains("Smith,\nJr"));
+        given().when().get("/api/v1/users/stats").then().body("count", equalTo(totalUsersInDatabase + 2));
+    }
+
+    @Test
+    @DisplayName("Should import the valid lines of an NDJSON body, such as an export")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldImportUsersFromNdjson() {
+        String body = given()
+                .contentType("application/x-ndjson")
+                .body(("{\"id\":\"" + nonExistentUserId + "\",\"name\":\"Zoe\",\"age\":40}\n"
+                        + "{\"name\":\" \",\"age\":20}\n"
+                        + "{\"name\":\n"
+                        + "{\"name\":\"Yann\",\"age\":41}\n").getBytes(StandardCharsets.UTF_8))
+                .when()
+                .post("/api/v1/users/import")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        List<JsonPath> reports = body.lines().map(JsonPath::from).toList();
+        Map<Integer, String> errors = reports.stream()
+                .filter(report -> report.get("message") != null)
+                .collect(Collectors.toMap(report -> report.getInt("line"), report -> report.getString("message")));
+        assertThat(errors).containsOnlyKeys(2, 3).containsEntry(2, "name: must not be blank");
+        assertThat(errors.get(3)).startsWith("malformed JSON");
+        assertThat(reports.get(reports.size() - 1).getLong("imported")).isEqualTo(2);
+
+        given()
+                .param("minAge", 40)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList.name", contains("Yann", "Zoe"));
+    }
+
+    @Test
+    @DisplayName("Should reject imports without a CSV header or in another format")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldRejectImportsWithoutHeaderOrFormat() {
+        given()
+                .contentType("text/csv")
+                .body("Zoe,40\n")
+                .when()
+                .post("/api/v1/users/import")
+                .then()
+                .statusCode(400);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("[]")
+                .when()
+                .post("/api/v1/users/import")
+                .then()
+                .statusCode(415);
+    }
+
+    @Test
+    @DisplayName("Should stream all users as NDJSON with HATEOAS links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldStreamUsersAsNdjsonWithLinks() {
+        String body = given()
+                .accept("application/x-ndjson")
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(totalUsersInDatabase);
+        lines.forEach(line -> {
+            UserResponseWithNameField_Links userDto = JsonPath.from(line)
+                    .getObject("$", UserResponseWithNameField_Links.class);
+            HashMap<String, String> links = createUserResponseLinks(userDto.id());
+            assertThat(userDto._links().get("self").toString()).isEqualTo("{href=" + links.get("self") + "}");
+            assertThat(userDto._links().get("create").toString()).isEqualTo("{href=" + links.get("create") + "}");
+            assertThat(userDto._links().get("update").toString()).isEqualTo("{href=" + links.get("update") + "}");
+            assertThat(userDto._links().get("delete").toString()).isEqualTo("{href=" + links.get("delete") + "}");
+        });
+    }
+
+    @Test
+    @DisplayName("Should return paged users as CBOR and a user as Smile, with HAL links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnUsersInBinaryFormats() throws IOException {
+        byte[] cbor = given()
+                .accept("application/cbor")
+                .param("size", 5)
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .contentType("application/cbor")
+                .extract().asByteArray();
+        JsonNode page = new CBORMapper().readTree(cbor);
+        assertThat(page.at("/_embedded/userResponseDtoList")).hasSize(5);
+        assertThat(page.at("/_embedded/userResponseDtoList/0/_links/self/href").asText()).startsWith(RestAssured.baseURI + ":" + port + "/api/v1/users/");
+        assertThat(page.at("/_links/next/href").isMissingNode()).isFalse();
+        assertThat(page.at("/page/totalElements").asInt()).isEqualTo(totalUsersInDatabase);
+
+        HashMap<String, String> links = createUserResponseLinks(userResponse.getId());
+        byte[] smile = given()
+                .accept("application/x-jackson-smile")
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .contentType("application/x-jackson-smile")
+                .extract().asByteArray();
+        JsonNode user = new SmileMapper().readTree(smile);
+        assertThat(user.get("name").asText()).isEqualTo(userResponse.getName());
+        assertThat(user.at("/_links/update/href").asText()).isEqualTo(links.get("update"));
+    }
+
+    @Test
+    @DisplayName("Should not answer a conditional CBOR request with the ETag of the JSON representation")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldTellETagsApartByMediaType() throws IOException {
+        String jsonETag = given()
+                .accept(ContentType.JSON)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .header("Vary", containsString("Accept"))
+                .extract().header("ETag");
+
+        Response cbor = given()
+                .accept("application/cbor")
+                .header("If-None-Match", jsonETag)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .contentType("application/cbor")
+                .header("Vary", containsString("Accept"))
+                .extract().response();
+        String cborETag = cbor.header("ETag");
+        assertThat(cborETag).isNotEqualTo(jsonETag);
+        assertThat(new CBORMapper().readTree(cbor.asByteArray()).get("name").asText()).isEqualTo(userResponse.getName());
+
+        given()
+                .accept("application/cbor")
+                .header("If-None-Match", cborETag)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(304)
+                .header("Vary", containsString("Accept"));
+    }
+
+    @Test
+    @DisplayName("Should gzip large collections once while they are unchanged")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldCompressLargeCollections() throws IOException {
+        RestAssuredConfig rawBody = RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+        String compressedETag = null;
+        for (int i = 0; i < 2; i++) {
+            Response response = given()
+                    .config(rawBody)
+                    .header("Accept-Encoding", "br;q=1, gzip;q=0.8")
+                    .param("hateoas", true)
+                    .when()
+                    .get("/api/v1/users")
+                    .then()
+                    .statusCode(200)
+                    .header("Content-Encoding", "gzip")
+                    .header("Vary", containsString("Accept-Encoding"))
+                    .header("ETag", startsWith("W/\""))
+                    .extract().response();
+            try (GZIPInputStream body = new GZIPInputStream(response.asInputStream())) {
+                assertThat(JsonPath.from(body).getList("_embedded.userResponseDtoList")).hasSize(totalUsersInDatabase);
+            }
+            compressedETag = response.header("ETag");
+        }
+
+        String identityETag = given()
+                .config(rawBody)
+                .header("Accept-Encoding", "identity")
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .extract().header("ETag");
+        assertThat(identityETag).startsWith("\"").isNotEqualTo(compressedETag);
+
+        given()
+                .config(rawBody)
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", compressedETag)
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users")
+                .then()
+                .statusCode(304);
+
+        given()
+                .param("tag", "cache:compressedResponses", "result:hit")
+                .when()
+                .get("/actuator/metrics/cache.gets")
+                .then()
+                .statusCode(200)
+                .body("measurements[0].value", equalTo(1.0f));
+
+        given()
+                .config(rawBody)
+                .header("Accept-Encoding", "gzip")
+                .param("size", 1)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue());
+    }
+
+    @Test
+    @DisplayName("Should expose the timers of the service stages in the Prometheus format")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldExposeServiceStageTimersToPrometheus() {
+        given().param("hateoas", true).param("size", 5).when().get("/api/v1/users/paged").then().statusCode(200);
+
+        given()
+                .when()
+                .get("/actuator/prometheus")
+                .then()
+                .statusCode(200)
+                .body(containsString("user_service_stage_seconds_count{endpoint=\"findPaged\",hateoas=\"true\",stage=\"repository\"} 1"))
+                .body(containsString("user_service_stage_seconds_count{endpoint=\"findPaged\",hateoas=\"true\",stage=\"mapper\"} 1"))
+                .body(containsString("user_service_stage_seconds_count{endpoint=\"findPaged\",hateoas=\"true\",stage=\"links\"} 2"))
+                .body(containsString("user_service_stage_seconds_bucket{"))
+                .body(containsString("http_server_requests_seconds_bucket{"));
+    }
+
+    @DisplayName("Should return a paginated list of users with appropriate page and user links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    @RepeatedTest(value = 10)
+    void shouldReturnPaginatedUsersWithLinks(RepetitionInfo repetitionInfo) {
+        String name = "";
+        int size = 2, page = repetitionInfo.getCurrentRepetition() - 1;
+        String sort = "name,asc";
+        int totalPages = (int) Math.ceil((double) totalUsersInDatabase / size);
+
+        HashMap<String, String> pageLinks = createPageLinks(name, size, page, totalPages);
+
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .param("name", name)
+                .param("size", size)
+                .param("page", page)
+                .param("sort", sort)
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList", hasSize(2))
+                .body("_links.self.href", equalTo(pageLinks.get("self") + "&hateoas=true"))
+                .body("_links.first.href", equalTo(pageLinks.get("first") + "&hateoas=true"))
+                .body("_links.last.href", equalTo(pageLinks.get("last") + "&hateoas=true"))
+                .extract().response();
+
+        if (page == totalPages - 1) {
+            response.then().body("_links", not(hasKey("next")));
+        } else {
+            response.then().body("_links.next.href", equalTo(pageLinks.get("next") + "&hateoas=true"));
+        }
+
+        if (page == 0) {
+            response.then().body("_links", not(hasKey("prev")));
+        } else {
+            response.then().body("_links.prev.href", equalTo(pageLinks.get("prev") + "&hateoas=true"));
+        }
+
+        List<UserResponseWithNameField_Links> userList = response.jsonPath().getList("_embedded.userResponseDtoList", UserResponseWithNameField_Links.class);
+        userList.forEach(userDto -> {
+            HashMap<String, String> userLinks = createUserResponseLinks(userDto.id());
+            assertThat(userDto._links().get("self").toString()).isEqualTo("{href=" + userLinks.get("self") + "}");
+            assertThat(userDto._links().get("create").toString()).isEqualTo("{href=" + userLinks.get("create") + "}");
+            assertThat(userDto._links().get("update").toString()).isEqualTo("{href=" + userLinks.get("update") + "}");
+            assertThat(userDto._links().get("delete").toString()).isEqualTo("{href=" + userLinks.get("delete") + "}");
+        });
+    }
+
+    @DisplayName("Should return a paginated list of users without HATEOAS links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    @RepeatedTest(value = 10)
+    void shouldReturnPaginatedUsersWithoutLinks(RepetitionInfo repetitionInfo) {
+        String name = "";
+        int size = 2, page = repetitionInfo.getCurrentRepetition() - 1;
+        String sort = "name,asc";
+
+        given()
+                .contentType(ContentType.JSON)
+                .param("name", name)
+                .param("size", size)
+                .param("page", page)
+                .param("sort", sort)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList", hasSize(2))
+                .body("$", not(hasKey("_links")))
+                .body("_embedded.userResponseDtoList[0]", not(hasKey("_links")))
+                .body("_embedded.userResponseDtoList[1]", not(hasKey("_links")));
+    }
+
+    @Test
+    @DisplayName("Should walk every user forwards and backwards through keyset cursors")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldWalkUsersThroughKeysetCursors() {
+        List<String> forwardNames = new ArrayList<>();
+        String href = RestAssured.baseURI + ":" + port + "/api/v1/users/paged?after=&size=3";
+        String lastHref = null;
+        while (href != null) {
+            Response response = given().when().get(href).then()
+                    .statusCode(200)
+                    .body("$", not(hasKey("page")))
+                    .extract().response();
+            forwardNames.addAll(response.jsonPath().getList("_embedded.userResponseDtoList.name", String.class));
+            lastHref = href;
+            href = response.jsonPath().getString("_links.next.href");
+        }
+        assertThat(forwardNames).hasSize(totalUsersInDatabase).isSorted();
+
+        List<String> backwardNames = new ArrayList<>();
+        href = lastHref;
+        while (href != null) {
+            Response response = given().when().get(href).then().statusCode(200).extract().response();
+            List<String> names = new ArrayList<>(response.jsonPath().getList("_embedded.userResponseDtoList.name", String.class));
+            Collections.reverse(names);
+            backwardNames.addAll(names);
+            href = response.jsonPath().getString("_links.prev.href");
+        }
+        Collections.reverse(backwardNames);
+        assertThat(backwardNames).isEqualTo(forwardNames);
+    }
+
+    @Test
+    @DisplayName("Should return 400 BadRequest when the keyset cursor is not valid or both directions are given")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnBadRequestWhenCursorIsInvalid() {
+        given()
+                .contentType(ContentType.JSON)
+                .param("after", "not-a-cursor")
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(400)
+                .body("message", notNullValue());
+
+        given()
+                .contentType(ContentType.JSON)
+                .param("after", "")
+                .param("before", "")
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(400)
+                .body("message", containsString("after and before"));
+    }
+
+    @Test
+    @DisplayName("Should search names by substring ignoring case, following renames and escaping wildcards")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldSearchUsersByNameSubstring() {
+        assertThat(searchNames("hAN")).containsExactly("Hannah", "Nathan");
+        assertThat(searchNames("an")).containsExactly("Diana", "Frank", "Hannah", "Ian", "Nathan");
+        assertThat(searchNames("%")).isEmpty();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(new UserRequestDto("Jonas", 27))
+                .when()
+                .put("/api/v1/users/{id}", "1e1f3e26-9b01-4d7d-a123-123456789014")
+                .then()
+                .statusCode(200);
+
+        assertThat(searchNames("han")).containsExactly("Hannah");
+        assertThat(searchNames("ONA")).containsExactly("Jonas");
+    }
+
+    @Test
+    @DisplayName("Should filter paged users by age range, alone or with a name, keeping the range in the links")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldFilterPagedUsersByAgeRange() {
+        given()
+                .param("name", "an")
+                .param("minAge", 26)
+                .param("maxAge", 28)
+                .param("size", totalUsersInDatabase)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList.name", contains("Diana", "Hannah", "Nathan"))
+                .body("page.totalElements", equalTo(3));
+
+        given()
+                .param("minAge", 26)
+                .param("maxAge", 28)
+                .param("size", 2)
+                .param("sort", "age,asc", "name,asc")
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList.name", contains("Hannah", "Olivia"))
+                .body("page.totalElements", equalTo(6))
+                .body("_links.next.href", allOf(containsString("minAge=26"), containsString("maxAge=28")));
+
+        given()
+                .param("minAge", 33)
+                .param("after", "")
+                .param("size", totalUsersInDatabase)
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList.name", contains("Jack", "Paul", "Steve"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 when the age range is empty")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnBadRequestWhenAgeRangeIsEmpty() {
+        given()
+                .param("minAge", 30)
+                .param("maxAge", 20)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(400)
+                .body("message", notNullValue());
+    }
+
+    @Test
+    @DisplayName("Should recount the paged users once a user is saved or deleted")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldRecountPagedUsersAfterWrites() {
+        assertThat(pagedTotal()).isEqualTo(totalUsersInDatabase);
+        assertThat(pagedTotal()).isEqualTo(totalUsersInDatabase);
+
+        String id = given()
+                .contentType(ContentType.JSON)
+                .body(validUserRequest)
+                .when()
+                .post("/api/v1/users")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+        assertThat(pagedTotal()).isEqualTo(totalUsersInDatabase + 1);
+
+        given().when().delete("/api/v1/users/{id}", id).then().statusCode(204);
+        assertThat(pagedTotal()).isEqualTo(totalUsersInDatabase);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated searches from the query cache until a user is renamed")
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
-    void shouldReturnNotFoundWhenUserDoesNotExist() {
+    void shouldServeRepeatedSearchesFromQueryCache() {
+        assertThat(searchNames("Alic")).containsExactly("Alice");
+        assertThat(searchNames("Alic")).containsExactly("Alice");
+
+        given()
+                .param("tag", "result:hit")
+                .when()
+                .get("/actuator/metrics/hibernate.cache.query.requests")
+                .then()
+                .statusCode(200)
+                .body("measurements[0].value", greaterThanOrEqualTo(1.0f));
+
         given()
                 .contentType(ContentType.JSON)
+                .body(new UserRequestDto("Zelda", 25))
                 .when()
-                .get("/api/v1/users/{id}", nonExistentUserId.toString())
+                .put("/api/v1/users/{id}", userResponse.getId())
                 .then()
-                .statusCode(404)
-                .body("timestamp", notNullValue())
-                .body("details", notNullValue())
-                .body("message", notNullValue());
+                .statusCode(200);
+
+        assertThat(searchNames("Alic")).isEmpty();
+        assertThat(searchNames("Zeld")).containsExactly("Zelda");
     }
 
     @Test
-    @DisplayName("Should return user successfully without HATEOAS links")
+    @DisplayName("Should accept a write-behind save and redirect its status to the user once written")
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
-    void shouldReturnUserWithoutHateoas() {
-        given()
+    void shouldSaveUserBehind() throws InterruptedException {
+        Response accepted = given()
                 .contentType(ContentType.JSON)
+                .header("Prefer", "respond-async")
+                .body(new UserRequestDto("Wendy", 33))
                 .when()
-                .get("/api/v1/users/{id}", userResponse.getId())
+                .post("/api/v1/users");
+        accepted.then()
+                .statusCode(202)
+                .header("Preference-Applied", "respond-async")
+                .body("status", equalTo("PENDING"));
+        String id = accepted.path("id");
+        assertThat(accepted.header("Location")).endsWith("/api/v1/users/writes/" + id);
+
+        Response status = given().redirects().follow(false).when().get(accepted.header("Location"));
+        for (int attempt = 0; attempt < 50 && status.statusCode() == 200; attempt++) {
+            Thread.sleep(100);
+            status = given().redirects().follow(false).when().get(accepted.header("Location"));
+        }
+        status.then()
+                .statusCode(303)
+                .body("status", equalTo("WRITTEN"));
+
+        given()
+                .when()
+                .get(status.header("Location"))
                 .then()
                 .statusCode(200)
-                .body("id", equalTo(userResponse.getId().toString()))
-                .body("age", equalTo(userResponse.getAge()))
-                .body("name", equalTo(userResponse.getName()))
-                .body("$", not(hasKey("_links")));  // Verifying that the "_links" field does not exist
+                .body("name", equalTo("Wendy"))
+                .body("age", equalTo(33));
+        assertThat(pagedTotal()).isEqualTo(totalUsersInDatabase + 1);
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Prefer", "respond-async")
+                .body(invalidRequestAgeBelowMinimum)
+                .when()
+                .post("/api/v1/users")
+                .then()
+                .statusCode(400);
+        given().when().get("/api/v1/users/writes/{id}", nonExistentUserId).then().statusCode(404);
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Prefer", "return=minimal, Respond-Async; ignored, wait=5")
+                .body(new UserRequestDto("Xavier", 44))
+                .when()
+                .post("/api/v1/users")
+                .then()
+                .statusCode(202)
+                .header("Preference-Applied", "respond-async");
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Prefer", "return=representation")
+                .body(new UserRequestDto("Yolanda", 45))
+                .when()
+                .post("/api/v1/users")
+                .then()
+                .statusCode(201)
+                .body("name", equalTo("Yolanda"));
     }
 
     @Test
-    @DisplayName("Should return user successfully with HATEOAS links")
+    @DisplayName("Should only return the selected fields and links, with an ETag of its own")
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
-    void shouldReturnUserWithHateoas() {
+    void shouldReturnSparseFieldsetOfUser() {
         HashMap<String, String> links = createUserResponseLinks(userResponse.getId());
-        given()
-                .contentType(ContentType.JSON)
+        String fullETag = given().param("hateoas", true).when().get("/api/v1/users/{id}", userResponse.getId())
+                .then().statusCode(200).extract().header("ETag");
+
+        String sparseETag = given()
                 .param("hateoas", true)
+                .param("fields", "name")
+                .param("rels", "self")
                 .when()
                 .get("/api/v1/users/{id}", userResponse.getId())
                 .then()
                 .statusCode(200)
-                .body("id", equalTo(userResponse.getId().toString()))
-                .body("age", equalTo(userResponse.getAge()))
+                .header("ETag", not(equalTo(fullETag)))
+                .header("ETag", matchesPattern("\"[^\"]+\""))
                 .body("name", equalTo(userResponse.getName()))
+                .body("$", not(hasKey("id")))
+                .body("$", not(hasKey("age")))
                 .body("_links.self.href", equalTo(links.get("self")))
-                .body("_links.create.href", equalTo(links.get("create")))
-                .body("_links.update.href", equalTo(links.get("update")))
-                .body("_links.delete.href", equalTo(links.get("delete")));
-    }
+                .body("_links", not(hasKey("update")))
+                .body("_links", not(hasKey("delete")))
+                .body("_links", not(hasKey("create")))
+                .extract()
+                .header("ETag");
 
-    @Test
-    @DisplayName("Should return a list of users successfully with HATEOAS links")
-    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
-    void shouldReturnListOfUsersWithHateoasLinks() {
-        Response response = given()
-                .contentType(ContentType.JSON)
+        given()
                 .param("hateoas", true)
+                .param("fields", "name")
+                .param("rels", "self")
+                .header("If-None-Match", sparseETag)
                 .when()
-                .get("/api/v1/users")
+                .get("/api/v1/users/{id}", userResponse.getId())
                 .then()
-                .statusCode(200)
-                .body("_embedded.userResponseDtoList", hasSize(20))
-                .body("_links.self.href", equalTo(RestAssured.baseURI + ":" + port + "/api/v1/users?hateoas=true"))
-                .extract().response();
+                .statusCode(304);
 
-        List<UserResponseWithNameField_Links> userList = response.jsonPath().getList("_embedded.userResponseDtoList", UserResponseWithNameField_Links.class);
+        given()
+                .param("hateoas", true)
+                .param("fields", "name")
+                .param("rels", "self")
+                .header("If-None-Match", fullETag)
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200);
 
-        userList.forEach(userDto -> {
-            HashMap<String, String> links = createUserResponseLinks(userDto.id());
-            assertThat(userDto._links().get("self").toString()).isEqualTo("{href=" + links.get("self") + "}");
-            assertThat(userDto._links().get("create").toString()).isEqualTo("{href=" + links.get("create") + "}");
-            assertThat(userDto._links().get("update").toString()).isEqualTo("{href=" + links.get("update") + "}");
-            assertThat(userDto._links().get("delete").toString()).isEqualTo("{href=" + links.get("delete") + "}");
-        });
+        given()
+                .contentType(ContentType.JSON)
+                .body(new UserRequestDto(userResponse.getName(), userResponse.getAge() + 1))
+                .header("If-Match", sparseETag)
+                .when()
+                .put("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200);
     }
 
     @Test
-    @DisplayName("Should return users without HATEOAS links")
+    @DisplayName("Should page through the users with only the selected fields")
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
-    void shouldReturnUsersWithoutLinks() {
-        Response response = given()
-                .contentType(ContentType.JSON)
+    void shouldReturnSparseFieldsetOfPagedUsers() {
+        given()
+                .param("fields", "id, age")
+                .param("size", 5)
                 .when()
-                .get("/api/v1/users")
+                .get("/api/v1/users/paged")
                 .then()
                 .statusCode(200)
-                .body("_embedded.userResponseDtoList", hasSize(20))
-                .body("_embedded", not(hasKey("_links")))
-                .extract().response();
-
-        List<UserResponseDto> userList = response.jsonPath().getList("_embedded.userResponseDtoList", UserResponseDto.class);
-        userList.forEach(userDto -> {
-            assertThat(userDto.getLinks()).hasSize(0);
-        });
-    }
-
-    @DisplayName("Should return a paginated list of users with appropriate page and user links")
-    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
-    @RepeatedTest(value = 10)
-    void shouldReturnPaginatedUsersWithLinks(RepetitionInfo repetitionInfo) {
-        String name = "";
-        int size = 2, page = repetitionInfo.getCurrentRepetition() - 1;
-        String sort = "name,asc";
-        int totalPages = (int) Math.ceil((double) totalUsersInDatabase / size);
+                .body("page.totalElements", equalTo(totalUsersInDatabase))
+                .body("_embedded.userResponseDtoList", hasSize(5))
+                .body("_embedded.userResponseDtoList.id", everyItem(notNullValue()))
+                .body("_embedded.userResponseDtoList.age", everyItem(notNullValue()))
+                .body("_embedded.userResponseDtoList.findAll { it.name != null }", empty());
 
-        HashMap<String, String> pageLinks = createPageLinks(name, size, page, totalPages);
-
-        Response response = given()
-                .contentType(ContentType.JSON)
-                .param("name", name)
-                .param("size", size)
-                .param("page", page)
-                .param("sort", sort)
+        given()
+                .param("fields", "name")
                 .param("hateoas", true)
+                .param("rels", "delete")
                 .when()
-                .get("/api/v1/users/paged")
+                .get("/api/v1/users")
                 .then()
                 .statusCode(200)
-                .body("_embedded.userResponseDtoList", hasSize(2))
-                .body("_links.self.href", equalTo(pageLinks.get("self") + "&hateoas=true"))
-                .body("_links.first.href", equalTo(pageLinks.get("first") + "&hateoas=true"))
-                .body("_links.last.href", equalTo(pageLinks.get("last") + "&hateoas=true"))
-                .extract().response();
-
-        if (page == totalPages - 1) {
-            response.then().body("_links", not(hasKey("next")));
-        } else {
-            response.then().body("_links.next.href", equalTo(pageLinks.get("next") + "&hateoas=true"));
-        }
-
-        if (page == 0) {
-            response.then().body("_links", not(hasKey("prev")));
-        } else {
-            response.then().body("_links.prev.href", equalTo(pageLinks.get("prev") + "&hateoas=true"));
-        }
-
-        List<UserResponseWithNameField_Links> userList = response.jsonPath().getList("_embedded.userResponseDtoList", UserResponseWithNameField_Links.class);
-        userList.forEach(userDto -> {
-            HashMap<String, String> userLinks = createUserResponseLinks(userDto.id());
-            assertThat(userDto._links().get("self").toString()).isEqualTo("{href=" + userLinks.get("self") + "}");
-            assertThat(userDto._links().get("create").toString()).isEqualTo("{href=" + userLinks.get("create") + "}");
-            assertThat(userDto._links().get("update").toString()).isEqualTo("{href=" + userLinks.get("update") + "}");
-            assertThat(userDto._links().get("delete").toString()).isEqualTo("{href=" + userLinks.get("delete") + "}");
-        });
+                .body("_embedded.userResponseDtoList", hasSize(totalUsersInDatabase))
+                .body("_embedded.userResponseDtoList.findAll { it.id != null }", empty())
+                .body("_embedded.userResponseDtoList._links.delete.href", everyItem(startsWith(RestAssured.baseURI + ":" + port + "/api/v1/users/")))
+                .body("_embedded.userResponseDtoList.findAll { it._links.self != null }", empty());
     }
 
-    @DisplayName("Should return a paginated list of users without HATEOAS links")
+    @Test
+    @DisplayName("Should return 400 BadRequest when a selected field is unknown")
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
-    @RepeatedTest(value = 10)
-    void shouldReturnPaginatedUsersWithoutLinks(RepetitionInfo repetitionInfo) {
-        String name = "";
-        int size = 2, page = repetitionInfo.getCurrentRepetition() - 1;
-        String sort = "name,asc";
-
+    void shouldReturnBadRequestWhenFieldIsUnknown() {
         given()
-                .contentType(ContentType.JSON)
-                .param("name", name)
-                .param("size", size)
-                .param("page", page)
-                .param("sort", sort)
+                .param("fields", "name,password")
                 .when()
                 .get("/api/v1/users/paged")
                 .then()
-                .statusCode(200)
-                .body("_embedded.userResponseDtoList", hasSize(2))
-                .body("$", not(hasKey("_links")))
-                .body("_embedded.userResponseDtoList[0]", not(hasKey("_links")))
-                .body("_embedded.userResponseDtoList[1]", not(hasKey("_links")));
+                .statusCode(400)
+                .body("message", notNullValue());
     }
 
     @Test
@@ -475,6 +1443,132 @@ class UserControllerIT extends UserMock {
                 .body("message", notNullValue());
     }
 
+    @Test
+    @DisplayName("Should save the valid users of a batch and report the invalid ones")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldSaveUsersInBatch() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(validUserRequest, invalidRequestAgeBelowMinimum, new UserRequestDto("Bob", 30)))
+                .when()
+                .post("/api/v1/users/batch")
+                .then()
+                .statusCode(200)
+                .body("succeeded", equalTo(2))
+                .body("failed", equalTo(1))
+                .body("items.status", contains(201, 400, 201))
+                .body("items[0].id", notNullValue())
+                .body("items[1].message", containsString("age"));
+
+        given()
+                .when()
+                .get("/api/v1/users")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList", hasSize(totalUsersInDatabase + 2));
+    }
+
+    @Test
+    @DisplayName("Should update the existing users of a batch and report the missing ones")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUpdateUsersInBatch() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(
+                        new UserBatchUpdateRequestDto(userResponse.getId(), "Alicia", 40),
+                        new UserBatchUpdateRequestDto(nonExistentUserId, "Nobody", 40)))
+                .when()
+                .put("/api/v1/users/batch")
+                .then()
+                .statusCode(200)
+                .body("succeeded", equalTo(1))
+                .body("items.status", contains(200, 404));
+
+        given()
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .body("name", equalTo("Alicia"))
+                .body("age", equalTo(40));
+    }
+
+    @Test
+    @DisplayName("Should delete the existing users of a batch and report the missing ones")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldDeleteUsersInBatch() {
+        given().when().get("/api/v1/users/{id}", userResponse.getId()).then().statusCode(200);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(userResponse.getId(), nonExistentUserId))
+                .when()
+                .delete("/api/v1/users/batch")
+                .then()
+                .statusCode(200)
+                .body("succeeded", equalTo(1))
+                .body("items.status", contains(204, 404));
+
+        given().when().get("/api/v1/users/{id}", userResponse.getId()).then().statusCode(404);
+    }
+
+    @Test
+    @DisplayName("Should return the user statistics, following saves, updates and deletes")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnUserStatistics() {
+        given()
+                .when()
+                .get("/api/v1/users/stats")
+                .then()
+                .statusCode(200)
+                .body("count", equalTo(totalUsersInDatabase))
+                .body("minAge", equalTo(21))
+                .body("maxAge", equalTo(35))
+                .body("averageAge", equalTo(28.0f))
+                .body("histogram.minAge", contains(20, 30))
+                .body("histogram.maxAge", contains(29, 39))
+                .body("histogram.count", contains(13, 7));
+
+        given().contentType(ContentType.JSON).body(new UserRequestDto("Zoe", 41)).when().post("/api/v1/users").then().statusCode(201);
+        given().contentType(ContentType.JSON).body(new UserRequestDto("Alicia", 19)).when().put("/api/v1/users/{id}", userResponse.getId()).then().statusCode(200);
+
+        given()
+                .when()
+                .get("/api/v1/users/stats")
+                .then()
+                .statusCode(200)
+                .body("count", equalTo(totalUsersInDatabase + 1))
+                .body("minAge", equalTo(19))
+                .body("maxAge", equalTo(41))
+                .body("histogram.minAge", contains(10, 20, 30, 40))
+                .body("histogram.count", contains(1, 12, 7, 1));
+
+        given().when().delete("/api/v1/users/{id}", userResponse.getId()).then().statusCode(204);
+
+        given()
+                .when()
+                .get("/api/v1/users/stats")
+                .then()
+                .statusCode(200)
+                .body("count", equalTo(totalUsersInDatabase))
+                .body("minAge", equalTo(21))
+                .body("histogram.minAge", contains(20, 30, 40))
+                .body("histogram.count", contains(12, 7, 1));
+    }
+
+    @Test
+    @DisplayName("Should return 400 BadRequest when a batch is empty")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldReturnBadRequestWhenBatchIsEmpty() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of())
+                .when()
+                .post("/api/v1/users/batch")
+                .then()
+                .statusCode(400);
+    }
+
     private HashMap<String, String> createUserResponseLinks(UUID userId) {
         String baseUri = RestAssured.baseURI + ":" + port + "/api/v1/users";
         String hateoasRequestParam = "?hateoas=true";
@@ -505,4 +1599,32 @@ class UserControllerIT extends UserMock {
         return links;
     }
 
-}
\ No newline at end of file
+    private List<String> searchNames(String name) {
+        List<String> names = given()
+                .param("name", name)
+                .param("size", totalUsersInDatabase)
+                .param("sort", "name,asc")
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getList("_embedded.userResponseDtoList.name", String.class);
+        // An empty page has no _embedded section
+        return names == null ? List.of() : names;
+    }
+
+    // A full first page, so the total has to be counted
+    private int pagedTotal() {
+        return given()
+                .param("size", 2)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .extract().path("page.totalElements");
+    }
+
+    private long persistedVersionOf(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM users WHERE user_id = ?", Long.class, id);
+    }
+}
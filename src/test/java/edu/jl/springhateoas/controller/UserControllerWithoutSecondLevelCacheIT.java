@@ -0,0 +1,195 @@
+package edu.jl.springhateoas.controller;
+
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.mock.UserMock;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests for the searches and updates of {@link UserController} with the Hibernate second-level and
+ * query caches off, as they are by default, while {@link UserControllerIT} runs with them on. They have a database
+ * of their own, since the cached context of the other tests may still hold the shared one.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"app.hibernate.second-level-cache=false", "spring.datasource.url=jdbc:h2:mem:without-second-level-cache"})
+class UserControllerWithoutSecondLevelCacheIT extends UserMock {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        RestAssured.port = port;
+    }
+
+    @Test
+    @DisplayName("Should page through the users matching a name and an age range")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldSearchPagedUsers() {
+        given()
+                .param("size", 2)
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .body("page.totalElements", equalTo(totalUsersInDatabase))
+                .body("_embedded.userResponseDtoList", hasSize(2))
+                .body("_links.next.href", notNullValue());
+
+        given()
+                .param("minAge", 33)
+                .param("size", totalUsersInDatabase)
+                .param("sort", "name,asc")
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .body("page.totalElements", equalTo(3))
+                .body("_embedded.userResponseDtoList.name", contains("Jack", "Paul", "Steve"));
+
+        assertThat(searchNames("Alic")).containsExactly("Alice");
+    }
+
+    @Test
+    @DisplayName("Should page through the users matching an age range with keyset cursors")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldSearchUsersWithKeysetCursors() {
+        given()
+                .param("minAge", 33)
+                .param("after", "")
+                .param("size", totalUsersInDatabase)
+                .param("hateoas", true)
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .body("_embedded.userResponseDtoList.name", contains("Jack", "Paul", "Steve"));
+    }
+
+    @Test
+    @DisplayName("Should update a user only while its If-Match ETag is current, and find it under its new name")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUpdateUserAndSearchItsNewName() {
+        assertThat(searchNames("Alic")).containsExactly("Alice");
+        String eTag = given()
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", eTag)
+                .body(new UserRequestDto("Zelda", 25))
+                .when()
+                .put("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(eTag)));
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", eTag)
+                .body(validUserRequest)
+                .when()
+                .put("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(412);
+
+        assertThat(searchNames("Alic")).isEmpty();
+        assertThat(searchNames("Zeld")).containsExactly("Zelda");
+        given()
+                .when()
+                .get("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .body("name", equalTo("Zelda"));
+    }
+
+    @Test
+    @DisplayName("Should update a user without If-Match, returning the version it persisted")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldUpdateUserUnconditionally() {
+        long version = jdbcTemplate.queryForObject("SELECT version FROM users WHERE user_id = ?", Long.class, userResponse.getId());
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(new UserRequestDto("Alicia", 40))
+                .when()
+                .put("/api/v1/users/{id}", userResponse.getId())
+                .then()
+                .statusCode(200)
+                .header("ETag", equalTo("\"" + (version + 1) + "\""));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM users WHERE user_id = ?", Long.class, userResponse.getId()))
+                .isEqualTo(version + 1);
+        given()
+                .contentType(ContentType.JSON)
+                .body(validUserRequest)
+                .when()
+                .put("/api/v1/users/{id}", nonExistentUserId)
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @DisplayName("Should backfill the trigrams of users written without them, once")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldBackfillNameTrigrams() {
+        jdbcTemplate.update("DELETE FROM user_name_trigrams WHERE user_id = ?", userResponse.getId());
+        assertThat(searchNames("Alic")).isEmpty();
+
+        assertThat(jdbcTemplate.queryForObject("CALL backfill_user_name_trigrams()", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("CALL backfill_user_name_trigrams()", Integer.class)).isZero();
+
+        assertThat(searchNames("Alic")).containsExactly("Alice");
+    }
+
+    @Test
+    @DisplayName("Should not collect Hibernate statistics without the caches")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldNotCollectHibernateStatistics() {
+        searchNames("Alic");
+
+        given()
+                .when()
+                .get("/actuator/metrics/hibernate.query.executions")
+                .then()
+                .statusCode(404);
+    }
+
+    private List<String> searchNames(String name) {
+        List<String> names = given()
+                .param("name", name)
+                .param("size", totalUsersInDatabase)
+                .param("sort", "name,asc")
+                .when()
+                .get("/api/v1/users/paged")
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getList("_embedded.userResponseDtoList.name", String.class);
+        // An empty page has no _embedded section
+        return names == null ? List.of() : names;
+    }
+}
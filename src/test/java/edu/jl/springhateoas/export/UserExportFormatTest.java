@@ -0,0 +1,48 @@
+package edu.jl.springhateoas.export;
+
+import edu.jl.springhateoas.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit test for {@link UserExportFormat}
+ */
+class UserExportFormatTest {
+    private static final UUID ID = UUID.fromString("1e1f3e26-9b01-4d7d-a123-123456789001");
+
+    @Test
+    @DisplayName("Should quote only the CSV names holding a comma, a quote or a line break")
+    void shouldQuoteCsvNamesWhenNeeded() {
+        assertThat(write(UserExportFormat.CSV, "Zoë", 25)).isEqualTo(ID + ",Zoë,25\n");
+        assertThat(write(UserExportFormat.CSV, "Smith, \"Jr\"", 40)).isEqualTo(ID + ",\"Smith, \"\"Jr\"\"\",40\n");
+        assertThat(write(UserExportFormat.CSV, "Two\nLines", 30)).isEqualTo(ID + ",\"Two\nLines\",30\n");
+    }
+
+    @Test
+    @DisplayName("Should write each user as a line of escaped JSON")
+    void shouldWriteNdjsonLines() {
+        assertThat(write(UserExportFormat.NDJSON, "Ann \"A\"\n", 25))
+                .isEqualTo("{\"id\":\"" + ID + "\",\"name\":\"Ann \\\"A\\\"\\n\",\"age\":25}\n");
+    }
+
+    @Test
+    @DisplayName("Should read formats ignoring case and reject unknown ones")
+    void shouldReadFormats() {
+        assertThat(UserExportFormat.of("CSV")).isEqualTo(UserExportFormat.CSV);
+        assertThat(UserExportFormat.of("ndjson")).isEqualTo(UserExportFormat.NDJSON);
+        assertThatThrownBy(() -> UserExportFormat.of("xml")).isInstanceOf(BadRequestException.class);
+    }
+
+    private static String write(UserExportFormat format, String name, int age) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        format.writeUser(output, ID, name, age);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
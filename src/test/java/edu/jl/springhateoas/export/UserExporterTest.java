@@ -0,0 +1,95 @@
+package edu.jl.springhateoas.export;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Unit test for {@link UserExporter}
+ */
+class UserExporterTest {
+    private static final int USERS = 200;
+
+    private JdbcTemplate jdbcTemplate;
+    private UserExporter userExporter;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:exporter;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (user_id UUID PRIMARY KEY, name VARCHAR(255) NOT NULL, age INT NOT NULL)");
+        for (int user = 0; user < USERS; user++) {
+            jdbcTemplate.update("INSERT INTO users (user_id, name, age) VALUES (?, ?, ?)", UUID.randomUUID(), "User " + user, 20 + user % 50);
+        }
+        // A single scanner shared by the exports, so a stalled export holds it
+        userExporter = new UserExporter(dataSource, 1, DataSize.ofBytes(64), 1, Duration.ofMillis(300));
+        clients = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        userExporter.shutdown();
+        jdbcTemplate.execute("DROP TABLE users");
+    }
+
+    @Test
+    @DisplayName("Should give the scanners of a stalled export back to the other exports, and fail the stalled one")
+    void shouldNotLetStalledExportHoldScanners() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch unstalled = new CountDownLatch(1);
+        OutputStream stalledClient = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                writing.countDown();
+                try {
+                    unstalled.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        Future<?> stalled = clients.submit(() -> {
+            userExporter.export(UserExportFormat.CSV).writeTo(stalledClient);
+            return null;
+        });
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> userExporter.export(UserExportFormat.CSV).writeTo(response));
+        assertThat(response.toString(StandardCharsets.UTF_8).lines()).hasSize(USERS + 1);
+
+        unstalled.countDown();
+        assertThatThrownBy(() -> stalled.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Export of the users failed");
+    }
+}
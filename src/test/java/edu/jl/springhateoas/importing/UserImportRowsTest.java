@@ -0,0 +1,73 @@
+package edu.jl.springhateoas.importing;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit test for {@link UserImportRows}
+ */
+class UserImportRowsTest {
+
+    @Test
+    @DisplayName("Should read CSV rows by their header, with quoted fields and the line each row starts on")
+    void shouldReadCsvRows() throws IOException {
+        List<UserImportRows.Row> rows = readAll(new UserImportRows.Csv(new StringReader(
+                "id,AGE,Name\r\n"
+                        + "1,25,Alice\r\n"
+                        + "2,30,\"Smith, \"\"Jr\"\"\nthe second\"\r\n"
+                        + "\r\n"
+                        + "3,,Bob\n"
+                        + "4,old,Carl\n"
+                        + "5,40,\"Dan")));
+
+        assertThat(rows).extracting(UserImportRows.Row::line).containsExactly(2L, 3L, 6L, 7L, 8L);
+        assertThat(rows.get(0).user().getName()).isEqualTo("Alice");
+        assertThat(rows.get(0).user().getAge()).isEqualTo(25);
+        assertThat(rows.get(1).user().getName()).isEqualTo("Smith, \"Jr\"\nthe second");
+        assertThat(rows.get(2).user().getAge()).isNull();
+        assertThat(rows.get(3).error()).isEqualTo("age: must be a whole number");
+        assertThat(rows.get(4).error()).isEqualTo("unterminated quoted field");
+    }
+
+    @Test
+    @DisplayName("Should reject a CSV body without the name and age columns in its header")
+    void shouldRejectCsvWithoutHeader() {
+        assertThatThrownBy(() -> new UserImportRows.Csv(new StringReader("Alice,25\n")))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> new UserImportRows.Csv(new StringReader("")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Should read NDJSON rows, skipping blank lines and reporting malformed ones")
+    void shouldReadNdjsonRows() throws IOException {
+        List<UserImportRows.Row> rows = readAll(new UserImportRows.Ndjson(new StringReader(
+                "{\"id\":\"ignored\",\"name\":\"Alice\",\"age\":25}\n\n{\"name\":\n"),
+                new ObjectMapper().readerFor(UserRequestDto.class).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)));
+
+        assertThat(rows).extracting(UserImportRows.Row::line).containsExactly(1L, 3L);
+        assertThat(rows.get(0).user().getName()).isEqualTo("Alice");
+        assertThat(rows.get(1).error()).startsWith("malformed JSON");
+    }
+
+    private static List<UserImportRows.Row> readAll(UserImportRows rows) throws IOException {
+        List<UserImportRows.Row> all = new ArrayList<>();
+        UserImportRows.Row row;
+        while ((row = rows.next()) != null) {
+            all.add(row);
+        }
+        return all;
+    }
+}
@@ -0,0 +1,73 @@
+package edu.jl.springhateoas.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.jl.springhateoas.exception.BadRequestException;
+import edu.jl.springhateoas.exception.TooManyRequestsException;
+import edu.jl.springhateoas.repository.UserRepository;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit test for {@link UserImporter}
+ */
+class UserImporterTest {
+    private static final MediaType CSV = MediaType.parseMediaType(UserImportFormat.CSV_VALUE);
+
+    private UserImporter userImporter;
+
+    @BeforeEach
+    void setUp() {
+        userImporter = new UserImporter(mock(UserRepository.class), mock(PlatformTransactionManager.class),
+                mock(ApplicationEventPublisher.class), mock(Validator.class), new ObjectMapper(), 2, 1, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImporter.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should reject imports beyond the concurrent limit until one finishes")
+    void shouldRejectImportsBeyondConcurrentLimit() throws IOException {
+        StreamingResponseBody running = userImporter.importUsers(CSV, body("name,age\n"));
+
+        assertThatThrownBy(() -> userImporter.importUsers(CSV, body("name,age\n")))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        running.writeTo(response);
+        assertThat(response.toString(StandardCharsets.UTF_8))
+                .isEqualTo("{\"read\":0,\"imported\":0,\"failed\":0,\"done\":true}\n");
+        assertThat(userImporter.importUsers(CSV, body("name,age\n"))).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should not count a rejected body against the concurrent limit")
+    void shouldReleaseImportOfRejectedBody() throws IOException {
+        assertThatThrownBy(() -> userImporter.importUsers(CSV, body("Zoe,40\n")))
+                .isInstanceOf(BadRequestException.class);
+
+        assertThat(userImporter.importUsers(CSV, body("name,age\n"))).isNotNull();
+    }
+
+    private static InputStream body(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+package edu.jl.springhateoas.link;
+
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for {@link UserLinkTemplates}
+ */
+class UserLinkTemplatesTest {
+    private static final String BASE_URI = "http://localhost:8080";
+
+    private UserLinkTemplates userLinkTemplates;
+
+    @BeforeEach
+    void setUp() {
+        userLinkTemplates = new UserLinkTemplates();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Should add the self, create, delete and update links expanded with the user id")
+    void shouldApplyLinks() {
+        UUID id = UUID.fromString("1e1f3e26-9b01-4d7d-a123-123456789001");
+
+        UserResponseDto result = userLinkTemplates.applyLinks(new UserResponseDto(id, "Alice", 25));
+
+        assertThat(result.getLinks()).extracting(Link::getRel).extracting(Object::toString)
+                .containsExactly("self", "create", "delete", "update");
+        assertThat(result.getRequiredLink("self").getHref()).isEqualTo(BASE_URI + "/api/v1/users/" + id + "?hateoas=true");
+        assertThat(result.getRequiredLink("create").getHref()).isEqualTo(BASE_URI + "/api/v1/users?hateoas=true");
+        assertThat(result.getRequiredLink("delete").getHref()).isEqualTo(BASE_URI + "/api/v1/users/" + id);
+        assertThat(result.getRequiredLink("update").getHref()).isEqualTo(BASE_URI + "/api/v1/users/" + id + "?hateoas=true");
+    }
+
+    @Test
+    @DisplayName("Should only add the links of the selected relations")
+    void shouldApplySelectedLinks() {
+        UUID id = UUID.fromString("1e1f3e26-9b01-4d7d-a123-123456789001");
+
+        UserResponseDto result = userLinkTemplates.forCurrentRequest(Set.of("self", "update")).apply(new UserResponseDto(id, "Alice", 25));
+
+        assertThat(result.getLinks()).extracting(Link::getRel).extracting(Object::toString)
+                .containsExactly("self", "update");
+    }
+
+    @Test
+    @DisplayName("Should build the self link of the users collection")
+    void shouldBuildCollectionSelfLink() {
+        assertThat(userLinkTemplates.collectionSelfLink().getHref()).isEqualTo(BASE_URI + "/api/v1/users?hateoas=true");
+    }
+}
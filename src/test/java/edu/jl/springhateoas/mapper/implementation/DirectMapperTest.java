@@ -0,0 +1,86 @@
+package edu.jl.springhateoas.mapper.implementation;
+
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.dto.user.UserResponseDto;
+import edu.jl.springhateoas.entity.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit test for {@link DirectMapper}
+ */
+class DirectMapperTest {
+
+    private DirectMapper directMapper;
+
+    @BeforeEach
+    void setUp() {
+        directMapper = new DirectMapper();
+    }
+
+    @Test
+    @DisplayName("Should successfully map a user entity to a user response")
+    void shouldConvertEntityToResponse() {
+        UUID id = UUID.randomUUID();
+        UserEntity source = new UserEntity(id, "John Doe", 30);
+
+        UserResponseDto result = directMapper.convertObject(source, UserResponseDto.class);
+
+        assertThat(result.getId()).isEqualTo(id);
+        assertThat(result.getName()).isEqualTo("John Doe");
+        assertThat(result.getAge()).isEqualTo(30);
+        assertThat(result.getLinks()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should successfully map a user request to a user entity without id")
+    void shouldConvertRequestToEntity() {
+        UserEntity result = directMapper.convertObject(new UserRequestDto("John Doe", 30), UserEntity.class);
+
+        assertThat(result.getId()).isNull();
+        assertThat(result.getName()).isEqualTo("John Doe");
+        assertThat(result.getAge()).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("Should successfully map a list of user entities to user responses")
+    void shouldConvertList() {
+        List<UserEntity> sourceList = List.of(
+                new UserEntity(UUID.randomUUID(), "John Doe", 30),
+                new UserEntity(UUID.randomUUID(), "Jane Doe", 25)
+        );
+
+        List<UserResponseDto> resultList = directMapper.convertList(sourceList, UserResponseDto.class);
+
+        assertThat(resultList).hasSize(2);
+        assertThat(resultList.get(0).getName()).isEqualTo("John Doe");
+        assertThat(resultList.get(1).getAge()).isEqualTo(25);
+    }
+
+    @Test
+    @DisplayName("Should successfully copy the request properties into an entity keeping its id")
+    void shouldCopyProperties() {
+        UUID id = UUID.randomUUID();
+        UserEntity destination = new UserEntity(id, "Jane Doe", 25);
+
+        directMapper.copyProperties(new UserRequestDto("John Doe", 30), destination);
+
+        assertThat(destination.getId()).isEqualTo(id);
+        assertThat(destination.getName()).isEqualTo("John Doe");
+        assertThat(destination.getAge()).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("Should reject conversions between types it does not know")
+    void shouldRejectUnsupportedConversion() {
+        assertThatThrownBy(() -> directMapper.convertObject("John Doe", UserEntity.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
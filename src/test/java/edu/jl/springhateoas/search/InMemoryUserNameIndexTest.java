@@ -0,0 +1,104 @@
+package edu.jl.springhateoas.search;
+
+import edu.jl.springhateoas.entity.UserEntity;
+import edu.jl.springhateoas.event.UserChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link InMemoryUserNameIndex}
+ */
+class InMemoryUserNameIndexTest {
+    private static final Pageable BY_NAME = PageRequest.of(0, 10, Sort.by("name"));
+
+    private JdbcTemplate jdbcTemplate;
+    private InMemoryUserNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        index = new InMemoryUserNameIndex(jdbcTemplate);
+        index.rebuild();
+        index.onUserChange(new UserChangeEvent(UserChangeEvent.Type.SAVED, UUID.randomUUID(), "Hannah", 31, 0L));
+        index.onUserChange(new UserChangeEvent(UserChangeEvent.Type.SAVED, UUID.randomUUID(), "Nathan", 27, 0L));
+        index.onUserChange(new UserChangeEvent(UserChangeEvent.Type.SAVED, UUID.randomUUID(), "Diana", 28, 0L));
+    }
+
+    @Test
+    @DisplayName("Should find the users whose name contains the term ignoring case, sorted and counted")
+    void shouldFindUsersByNameSubstring() {
+        assertThat(namesOf(index.search(UserSearch.byName("hAN"), BY_NAME).orElseThrow()))
+                .containsExactly("Hannah", "Nathan");
+        assertThat(namesOf(index.search(UserSearch.byName("an"), BY_NAME).orElseThrow()))
+                .containsExactly("Diana", "Hannah", "Nathan");
+        assertThat(index.search(UserSearch.byName("xyz"), BY_NAME).orElseThrow()).isEmpty();
+
+        Page<UserEntity> page = index.search(UserSearch.byName(""), PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "age"))).orElseThrow();
+        assertThat(namesOf(page)).containsExactly("Nathan");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should find the users within the age range, with or without a name")
+    void shouldFindUsersByAgeRange() {
+        assertThat(namesOf(index.search(UserSearch.of("an", 28, null), BY_NAME).orElseThrow()))
+                .containsExactly("Diana", "Hannah");
+        assertThat(namesOf(index.search(UserSearch.of("", 27, 28), BY_NAME).orElseThrow()))
+                .containsExactly("Diana", "Nathan");
+
+        Page<UserEntity> page = index.search(UserSearch.of("", null, 28), PageRequest.of(0, 1, Sort.by("age"))).orElseThrow();
+        assertThat(namesOf(page)).containsExactly("Nathan");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should follow renames and deletions")
+    void shouldFollowRenamesAndDeletions() {
+        UserEntity nathan = index.search(UserSearch.byName("nathan"), BY_NAME).orElseThrow().getContent().get(0);
+        index.onUserChange(UserChangeEvent.updated(nathan.getId(), "Jonas", 27, 1L, nathan.getAge()));
+        assertThat(namesOf(index.search(UserSearch.byName("han"), BY_NAME).orElseThrow())).containsExactly("Hannah");
+        assertThat(namesOf(index.search(UserSearch.byName("ona"), BY_NAME).orElseThrow())).containsExactly("Jonas");
+
+        index.onUserChange(UserChangeEvent.deleted(nathan.getId(), 27));
+        assertThat(index.search(UserSearch.byName("ona"), BY_NAME).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should leave searches sorted by other properties to the database")
+    void shouldNotAnswerUnsupportedSorts() {
+        assertThat(index.search(UserSearch.byName("an"), PageRequest.of(0, 10, Sort.by("id")))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rebuild when the database no longer matches the indexed users")
+    @SuppressWarnings("unchecked")
+    void shouldRebuildOnDrift() {
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class))).thenReturn(new long[]{3, 0});
+        index.verify();
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class))).thenReturn(new long[]{4, 0});
+        index.verify();
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    private static List<String> namesOf(Page<UserEntity> page) {
+        return page.map(UserEntity::getName).getContent();
+    }
+}
@@ -0,0 +1,33 @@
+package edu.jl.springhateoas.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for {@link Trigrams}
+ */
+class TrigramsTest {
+
+    @Test
+    @DisplayName("Should split the upper-cased text into its distinct trigrams")
+    void shouldSplitIntoDistinctTrigrams() {
+        assertThat(Trigrams.of("Hannah")).containsExactly("HAN", "ANN", "NNA", "NAH");
+        assertThat(Trigrams.of("aaaa")).containsExactly("AAA");
+    }
+
+    @Test
+    @DisplayName("Should have no trigrams for texts shorter than three characters")
+    void shouldHaveNoTrigramsForShortTexts() {
+        assertThat(Trigrams.of("")).isEmpty();
+        assertThat(Trigrams.of("Al")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should build an upper-cased contains pattern with the LIKE wildcards escaped")
+    void shouldBuildEscapedContainsPattern() {
+        assertThat(Trigrams.containsPattern("ann")).isEqualTo("%ANN%");
+        assertThat(Trigrams.containsPattern("5%_a\\")).isEqualTo("%5\\%\\_A\\\\%");
+    }
+}
@@ -0,0 +1,92 @@
+package edu.jl.springhateoas.search;
+
+import edu.jl.springhateoas.event.UserChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link UserCountCache}
+ */
+class UserCountCacheTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private AtomicInteger exactCounts;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        exactCounts = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should count a name once, ignoring case, until a user is written")
+    void shouldCountOnceUntilUserIsWritten() {
+        UserCountCache cache = new UserCountCache(jdbcTemplate, Duration.ofMinutes(1), "exact", 1000, 10000);
+
+        assertThat(cache.count(UserSearch.byName("ann"), this::exactCount)).isEqualTo(new UserCountCache.Count(42, false));
+        assertThat(cache.count(UserSearch.byName("ANN"), this::exactCount).total()).isEqualTo(42);
+        assertThat(exactCounts).hasValue(1);
+
+        cache.onUserChange(UserChangeEvent.deleted(UUID.randomUUID(), 30));
+        assertThat(cache.count(UserSearch.byName("ann"), this::exactCount).total()).isEqualTo(42);
+        assertThat(exactCounts).hasValue(2);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should count each age range of a name on its own")
+    void shouldCountAgeRangesSeparately() {
+        UserCountCache cache = new UserCountCache(jdbcTemplate, Duration.ofMinutes(1), "exact", 1000, 10000);
+
+        cache.count(UserSearch.byName("ann"), this::exactCount);
+        cache.count(UserSearch.of("ann", 20, 30), this::exactCount);
+        cache.count(UserSearch.of("ANN", 20, 30), this::exactCount);
+        cache.count(UserSearch.of("ann", 20, null), this::exactCount);
+        assertThat(exactCounts).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Should report large totals estimated from slices of the key from random ids, and count the small ones")
+    void shouldEstimateLargeTotals() {
+        UserCountCache cache = new UserCountCache(jdbcTemplate, Duration.ofMinutes(1), "estimated", 1000, 10000);
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class)).thenReturn(1_000_000L);
+        Set<Object> sliceStarts = new HashSet<>();
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*), "), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    // Expanded arguments: the statement, the row mapper, the pattern, the first id and the slice size
+                    sliceStarts.add(invocation.getArgument(3));
+                    assertThat(invocation.<Integer>getArgument(4)).isEqualTo(100);
+                    return invocation.getArgument(2).equals("%ANN%") ? new long[]{100, 25} : new long[]{100, 0};
+                });
+
+        assertThat(cache.count(UserSearch.byName("ann"), this::exactCount)).isEqualTo(new UserCountCache.Count(250_000, true));
+        assertThat(exactCounts).hasValue(0);
+        assertThat(sliceStarts).hasSize(10).allMatch(UUID.class::isInstance);
+
+        assertThat(cache.count(UserSearch.byName("zoe"), this::exactCount)).isEqualTo(new UserCountCache.Count(42, false));
+        assertThat(exactCounts).hasValue(1);
+
+        assertThat(cache.count(UserSearch.byName(""), this::exactCount)).isEqualTo(new UserCountCache.Count(42, false));
+        assertThat(exactCounts).hasValue(2);
+        verify(jdbcTemplate, times(20)).queryForObject(startsWith("SELECT COUNT(*), "), any(RowMapper.class), any(Object[].class));
+    }
+
+    private long exactCount() {
+        exactCounts.incrementAndGet();
+        return 42;
+    }
+}
@@ -0,0 +1,161 @@
+package edu.jl.springhateoas.statistics;
+
+import edu.jl.springhateoas.dto.user.UserStatisticsDto;
+import edu.jl.springhateoas.event.UserChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link UserAgeStatistics}
+ */
+class UserAgeStatisticsTest {
+    private JdbcTemplate jdbcTemplate;
+    private ExecutorService reconciler;
+    private UserAgeStatistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        usersInDatabase(Map.of(25, 1L, 31, 1L));
+        reconciler = Executors.newSingleThreadExecutor();
+        statistics = new UserAgeStatistics(jdbcTemplate, 10, reconciler);
+        statistics.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should follow saves, updates and deletes without going to the database")
+    void shouldFollowUserChanges() {
+        statistics.onUserChange(new UserChangeEvent(UserChangeEvent.Type.SAVED, UUID.randomUUID(), "Nathan", 27, 0L));
+        statistics.onUserChange(UserChangeEvent.updated(UUID.randomUUID(), "Ian", 42, 1L, 31));
+        statistics.onUserChange(UserChangeEvent.deleted(UUID.randomUUID(), 25));
+
+        UserStatisticsDto userStatistics = statistics.statistics();
+        assertThat(userStatistics.count()).isEqualTo(2);
+        assertThat(userStatistics.minAge()).isEqualTo(27);
+        assertThat(userStatistics.maxAge()).isEqualTo(42);
+        assertThat(userStatistics.averageAge()).isEqualTo(34.5);
+        assertThat(userStatistics.histogram()).containsExactly(
+                new UserStatisticsDto.AgeBucket(20, 29, 1),
+                new UserStatisticsDto.AgeBucket(30, 39, 0),
+                new UserStatisticsDto.AgeBucket(40, 49, 1));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Should answer the stale counts after a change of unknown previous age and read them again in the background")
+    void shouldReconcileAfterUnknownChange() throws Exception {
+        usersInDatabase(Map.of(25, 1L));
+        statistics.onUserChange(UserChangeEvent.deleted(UUID.randomUUID(), null));
+
+        assertThat(statistics.statistics().count()).isEqualTo(2);
+        // The reconciler runs one task at a time, so this one waits for the scheduled reconciliation
+        reconciler.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+
+        UserStatisticsDto userStatistics = statistics.statistics();
+        assertThat(userStatistics.count()).isEqualTo(1);
+        assertThat(userStatistics.histogram()).containsExactly(new UserStatisticsDto.AgeBucket(20, 29, 1));
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Should not keep counts read while a committed change was not applied yet")
+    void shouldNotCountChangesCommittedBeforeReconciliationTwice() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        statistics.onUserChange(new UserChangeEvent(UserChangeEvent.Type.SAVED, UUID.randomUUID(), "Nathan", 27, 0L));
+        // Committed, so already in the table, but not applied yet
+        usersInDatabase(Map.of(25, 1L, 27, 1L, 31, 1L));
+        statistics.reconcile();
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(statistics.statistics().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should not apply a rolled back change")
+    void shouldIgnoreRolledBackChanges() {
+        TransactionSynchronizationManager.initSynchronization();
+        statistics.onUserChange(new UserChangeEvent(UserChangeEvent.Type.SAVED, UUID.randomUUID(), "Nathan", 27, 0L));
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(statistics.statistics().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should read the counts again when a change arrives while they are read")
+    void shouldNotCountChangesDuringReconciliationTwice() throws Exception {
+        UserChangeEvent saved = new UserChangeEvent(UserChangeEvent.Type.SAVED, UUID.randomUUID(), "Nathan", 27, 0L);
+        usersInDatabase(Map.of(25, 1L, 27, 1L, 31, 1L), () -> statistics.onUserChange(saved));
+        statistics.reconcile();
+
+        UserStatisticsDto userStatistics = statistics.statistics();
+        assertThat(userStatistics.count()).isEqualTo(3);
+        assertThat(userStatistics.averageAge()).isEqualTo(83 / 3.0);
+        verify(jdbcTemplate, times(3)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Should report no ages without users")
+    void shouldReportNoAgesWithoutUsers() throws Exception {
+        usersInDatabase(Map.of());
+        statistics.reconcile();
+
+        assertThat(statistics.statistics()).isEqualTo(new UserStatisticsDto(0, null, null, null, List.of()));
+    }
+
+    private void usersInDatabase(Map<Integer, Long> usersByAge) throws Exception {
+        usersInDatabase(usersByAge, () -> {
+        });
+    }
+
+    /**
+     * Also runs a change while the first query after this one is in flight.
+     */
+    private void usersInDatabase(Map<Integer, Long> usersByAge, Runnable changeDuringQuery) throws Exception {
+        AtomicBoolean changed = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (changed.compareAndSet(false, true)) {
+                changeDuringQuery.run();
+            }
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map.Entry<Integer, Long> ageCount : usersByAge.entrySet()) {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(resultSet.getInt(1)).thenReturn(ageCount.getKey());
+                when(resultSet.getLong(2)).thenReturn(ageCount.getValue());
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+}
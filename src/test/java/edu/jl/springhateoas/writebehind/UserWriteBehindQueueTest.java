@@ -0,0 +1,119 @@
+package edu.jl.springhateoas.writebehind;
+
+import edu.jl.springhateoas.dto.user.UserRequestDto;
+import edu.jl.springhateoas.dto.user.UserWriteStatusDto;
+import edu.jl.springhateoas.exception.TooManyRequestsException;
+import edu.jl.springhateoas.mapper.implementation.DirectMapper;
+import edu.jl.springhateoas.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link UserWriteBehindQueue}
+ */
+class UserWriteBehindQueueTest {
+
+    private UserRepository userRepository;
+    private UserWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        queue = new UserWriteBehindQueue(new DirectMapper(), userRepository, mock(PlatformTransactionManager.class),
+                mock(ApplicationEventPublisher.class), new SimpleMeterRegistry(), 1, 10, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    @DisplayName("Should reject saves while the queue is full and drain it on stop")
+    void shouldRejectSavesWhileQueueIsFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).doNothing().when(userRepository).insertAll(anyList());
+        queue.start();
+
+        UserWriteStatusDto first = queue.enqueue(new UserRequestDto("Ann", 20));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        UserWriteStatusDto second = queue.enqueue(new UserRequestDto("Bob", 30));
+        assertThatThrownBy(() -> queue.enqueue(new UserRequestDto("Cid", 40)))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(queue.findStatus(second.id()).status()).isEqualTo(UserWriteStatusDto.Status.PENDING);
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        queue.stop(stopped::countDown);
+        release.countDown();
+        assertThat(stopped.await(5, TimeUnit.SECONDS)).isTrue();
+
+        verify(userRepository, times(2)).insertAll(anyList());
+        assertThat(queue.findStatus(first.id()).status()).isEqualTo(UserWriteStatusDto.Status.WRITTEN);
+        assertThat(queue.findStatus(second.id()).status()).isEqualTo(UserWriteStatusDto.Status.WRITTEN);
+        assertThatThrownBy(() -> queue.enqueue(new UserRequestDto("Dan", 50)))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    @DisplayName("Should write every accepted save when stopped while saves come in")
+    void shouldWriteEverySaveAcceptedBeforeStop() throws Exception {
+        UserWriteBehindQueue busyQueue = new UserWriteBehindQueue(new DirectMapper(), userRepository,
+                mock(PlatformTransactionManager.class), mock(ApplicationEventPublisher.class), new SimpleMeterRegistry(),
+                100_000, 10, Duration.ofMinutes(1), 100_000);
+        busyQueue.start();
+        List<UUID> accepted = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService savers = Executors.newFixedThreadPool(4);
+        for (int saver = 0; saver < 4; saver++) {
+            savers.submit(() -> {
+                try {
+                    while (true) {
+                        accepted.add(busyQueue.enqueue(new UserRequestDto("Ann", 20)).id());
+                    }
+                } catch (TooManyRequestsException exception) {
+                    return;
+                }
+            });
+        }
+        Thread.sleep(50);
+        busyQueue.stop();
+        savers.shutdown();
+        assertThat(savers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(accepted).isNotEmpty().allSatisfy(id ->
+                assertThat(busyQueue.findStatus(id).status()).isEqualTo(UserWriteStatusDto.Status.WRITTEN));
+    }
+
+    @Test
+    @DisplayName("Should report the saves of a batch that failed to be written")
+    void shouldReportFailedWrites() {
+        doThrow(new DataAccessResourceFailureException("Database down")).when(userRepository).insertAll(anyList());
+        queue.start();
+
+        UserWriteStatusDto pending = queue.enqueue(new UserRequestDto("Ann", 20));
+        queue.stop();
+
+        UserWriteStatusDto failed = queue.findStatus(pending.id());
+        assertThat(failed.status()).isEqualTo(UserWriteStatusDto.Status.FAILED);
+        assertThat(failed.message()).contains("Database down");
+    }
+}